@@ -0,0 +1,104 @@
+package app.gui;
+
+import app.domain.collider.Collider;
+import app.domain.collider.GeometryCollider;
+import app.domain.shape.Point;
+import app.domain.shape.Polygon;
+import app.domain.shape.Rectangle;
+import app.domain.shape.Shape;
+
+import java.util.Random;
+import java.util.Vector;
+
+/**
+ * Compares GeometryCollider with the Area based GUICollider the editor used before, on random shapes with
+ * fractional coordinates. GUICollider truncates the points to ints, a mismatch is counted as explained by the
+ * truncation when GeometryCollider gives the GUICollider answer on the truncated shapes.
+ * Not part of the application build, compile it against the application classes and run main.
+ */
+public final class ColliderBenchmark {
+    private static final int PAIRS = 20000;
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        Random random = new Random(args.length > 0 ? Long.parseLong(args[0]) : 42);
+        Shape[] a = new Shape[PAIRS];
+        Shape[] b = new Shape[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            a[i] = randomShape(random);
+            b[i] = randomShape(random);
+        }
+        Collider reference = new GUICollider();
+        Collider geometry = new GeometryCollider();
+
+        int mismatches = 0;
+        int truncated = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            boolean expected = reference.hasCollide(a[i], b[i]);
+            if (expected != geometry.hasCollide(a[i], b[i])) {
+                mismatches++;
+                if (expected == geometry.hasCollide(truncate(a[i]), truncate(b[i]))) {
+                    truncated++;
+                }
+            }
+        }
+        System.out.printf("pairs=%d mismatches=%d explained by int truncation=%d%n", PAIRS, mismatches, truncated);
+
+        report("GUICollider", reference, a, b);
+        report("GeometryCollider", geometry, a, b);
+    }
+
+    private static void report(String name, Collider collider, Shape[] a, Shape[] b) {
+        for (int i = 0; i < WARMUP; i++) {
+            run(collider, a, b);
+        }
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            run(collider, a, b);
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+        System.out.printf("%-16s avg=%.1f ns/pair best=%.1f ns/pair%n", name,
+                total / (double) ROUNDS / a.length, best / (double) a.length);
+    }
+
+    private static int run(Collider collider, Shape[] a, Shape[] b) {
+        int hits = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (collider.hasCollide(a[i], b[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static Shape truncate(Shape shape) {
+        Vector<Point> points = new Vector<>();
+        for (Point p : shape.getPoints()) {
+            points.add(new Point((int) p.x, (int) p.y));
+        }
+        return new Polygon(points, shape.getColor());
+    }
+
+    private static Shape randomShape(Random random) {
+        double x = random.nextDouble() * 200;
+        double y = random.nextDouble() * 200;
+        if (random.nextBoolean()) {
+            return Rectangle.create(x, y, 5 + random.nextDouble() * 60, 5 + random.nextDouble() * 60,
+                    new int[]{0, 0, 0, 255}, random.nextDouble() * Math.PI);
+        }
+        int n = 3 + random.nextInt(5);
+        double radius = 5 + random.nextDouble() * 40;
+        Vector<Point> points = new Vector<>();
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            double r = radius * (0.6 + 0.4 * random.nextDouble());
+            points.add(new Point(x + r * Math.cos(angle), y + r * Math.sin(angle)));
+        }
+        return new Polygon(points, new int[]{0, 0, 0, 255});
+    }
+}
@@ -4,6 +4,9 @@ import app.domain.collider.Collider;
 import app.domain.collider.ColliderValidator;
 import app.domain.seat.Seat;
 import app.domain.seat.SeatSection;
+import app.domain.section.SeatLayout;
+import app.domain.section.SeatLayoutCache;
+import app.domain.section.SeatReflowScheduler;
 import app.domain.section.SeatedSection;
 import app.domain.section.Section;
 import app.domain.section.StandingSection;
@@ -11,6 +14,7 @@ import app.domain.selection.Selection;
 import app.domain.selection.SelectionAdapter;
 import app.domain.selection.SelectionHolder;
 import app.domain.selection.SelectionVisitor;
+import app.domain.shape.Bounds;
 import app.domain.shape.Point;
 import app.domain.shape.PointSelection;
 import app.domain.shape.Shape;
@@ -18,16 +22,27 @@ import app.domain.shape.ShapeBuilder;
 import app.domain.shape.ShapeBuilderFactory;
 import app.domain.section.SectionFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 public class Controller {
-    private final Collider collider;
+    private static final long REFLOW_DELAY = 50;
+    private static final long HOVER_DELAY = 500;
+    private static final FlightEvent.Type HISTORY_SNAPSHOT = FlightEvent.type("app.venue.HistorySnapshot",
+            "History Snapshot", "Room serialized for undo",
+            FlightEvent.field("bytes", long.class, "JSON Size").inBytes());
+
     private final ColliderValidator validator;
     private final SelectionHolder selectionHolder;
+    private final SeatReflowScheduler reflow;
+    private final HoverScheduler hover;
 
     private final Point cursor = new Point(-1, -1);
     private final Point offset = new Point(30, 30);
     private final History history = new History();
+    private final Profiler profiler = new Profiler();
+    private final SeatLayoutCache seatLayouts = new SeatLayoutCache(64);
     private final JSONSerialize serializer = new JSONSerialize();
 
     private Room room;
@@ -38,16 +53,17 @@ public class Controller {
     private Seat hoveredSeat;
     private Section hoveredSection;
     private boolean seatHovered = false;
-    private Timer timer = new Timer();
     private Observer observer;
     private double delta = 20.0;
     private double deltaScale = 1;
     private boolean isGridOn = true;
+    private Executor dispatcher = Runnable::run;
 
     public Controller(Collider collider) {
-        this.collider = Objects.requireNonNull(collider);
-        this.validator = new ColliderValidator(collider);
+        this.validator = new ColliderValidator(collider, profiler);
         this.selectionHolder = new SelectionHolder(collider);
+        this.reflow = new SeatReflowScheduler(command -> dispatcher.execute(command), REFLOW_DELAY, seatLayouts, profiler);
+        this.hover = new HoverScheduler(command -> dispatcher.execute(command), HOVER_DELAY);
         this.room = new Room(850, 850, new VitalSpace(30, 30));
     }
 
@@ -59,8 +75,17 @@ public class Controller {
         this.ui = Objects.requireNonNull(ui);
     }
 
+    /**
+     * Executor running tasks on the UI thread, used to publish the seats computed in background and the hover.
+     */
+    public void setDispatcher(Executor dispatcher) {
+        this.dispatcher = Objects.requireNonNull(dispatcher);
+    }
+
     public void createRoom(double roomWidth, double roomHeight, double vitalSpaceWidth, double vitalSpaceHeight) {
+        reflow.cancelAll();
         room = new Room(roomWidth, roomHeight, new VitalSpace(vitalSpaceWidth, vitalSpaceHeight));
+        ui.viewChanged();
     }
 
     public void save(String path) {
@@ -69,9 +94,10 @@ public class Controller {
     }
 
     public void load(String path) {
+        reflow.cancelAll();
         room = serializer.deserializeFromJson(path);
         selectionHolder.resetSelection(room);
-        ui.repaint();
+        ui.viewChanged();
     }
 
     public double getXCursor () {
@@ -87,6 +113,11 @@ public class Controller {
     }
 
     public void mouseDragged(int x, int y) {
+        profiler.time("mouseDragged", () -> drag(x, y));
+    }
+
+    private void drag(int x, int y) {
+        hover.cancel();
         observer.onLeave();
         Point destination = getTransformedPoint(new Point(x,y));
         double dx;
@@ -105,11 +136,13 @@ public class Controller {
             @Override
             public void visit(Stage stage) {
                 move(stage);
+                reflowSeats(true);
             }
 
             @Override
             public void visit(SeatedSection section) {
                 move(section);
+                reflowSeats(section, true);
             }
 
             @Override
@@ -120,11 +153,13 @@ public class Controller {
             @Override
             public void visit(Seat seat) {
                 move(selectionHolder.getPreSelection());
+                reflowSeats(selectionHolder.getPreSelection(), true);
             }
 
             @Override
             public void visit(SeatSection seatSection) {
                 move(selectionHolder.getPreSelection());
+                reflowSeats(selectionHolder.getPreSelection(), true);
             }
 
             @Override
@@ -135,16 +170,20 @@ public class Controller {
                 if(!validator.validPredictShape(selectionHolder.getPreSelection().getShape(),selectionHolder.getPreSelection().getShape(),getRoom())){
                  selectionHolder.getPreSelection().setShape(backup);
                 }
+                room.update(selectionHolder.getPreSelection());
+                point.getSeatedSection().ifPresent(section -> reflowSeats(section, true, ui::repaint));
                 ui.repaint();
             }
 
             private void move(Selection selection) {
                 if (isMovable(selection.getShape(), dx,dy)) {
+                    Bounds before = paintedBounds(selection);
                     selection.move(dx, dy);
                     if (isGridOn()){
                         anchor(selection);
                     }
-                    ui.repaint();
+                    room.update(selection);
+                    ui.repaint(before.union(paintedBounds(selection)));
                 }
             }
         }))
@@ -156,13 +195,13 @@ public class Controller {
             @Override
             public void visit(Stage stage) {
                 saveRoom();
-                autoSetSeat();
+                reflowSeats(false);
             }
 
             @Override
             public void visit(SeatedSection section) {
                 saveRoom();
-                autoSetSeat();
+                reflowSeats(section, false);
             }
 
             @Override
@@ -173,24 +212,32 @@ public class Controller {
             @Override
             public void visit(Seat seat) {
                 saveRoom();
-                autoSetSeat();
+                reflowSeats(selectionHolder.getPreSelection(), false);
             }
 
             @Override
             public void visit(SeatSection seatSection) {
                 saveRoom();
-                autoSetSeat();
+                reflowSeats(selectionHolder.getPreSelection(), false);
             }
 
             @Override
             public void visit(PointSelection point) {
-                point.recalculate(room.getStage().get(), collider);
-                saveRoom();
+                Optional<SeatedSection> section = point.getSeatedSection();
+                if (section.isPresent() && room.getStage().isPresent()) {
+                    reflowSeats(section.get(), false, () -> {
+                        saveRoom();
+                        ui.repaint();
+                    });
+                } else {
+                    saveRoom();
+                }
             }
         });
     }
 
     public void mouseClicked(int x, int y) {
+        hover.cancel();
         observer.onLeave();
         if (room == null) {
             return;
@@ -210,6 +257,10 @@ public class Controller {
     }
 
     public void mouseMoved(int x, int y) {
+        profiler.time("mouseMoved", () -> moveCursor(x, y));
+    }
+
+    private void moveCursor(int x, int y) {
         seatHovered = false;
         Point destination = getTransformedPoint(new Point(x,y));
         cursor.set(destination.x, destination.y);
@@ -217,24 +268,20 @@ public class Controller {
             Point magnet = magnet(cursor);
             cursor.set(magnet.x,magnet.y);
         }
-        for (Section s: room.getSections()){
-            s.forEachSeats( seat -> {
-                if (selectionHolder.selectionCheck(seat.getShape(), cursor.x, cursor.y)) {
-                    seatHovered = true;
-                    if (hoveredSeat != seat) {
-                        observer.onLeave();
-                        hoveredSection = s;
-                        hoveredSeat = seat;
-                        timerReset();
-                    }
+        for (Section s: room.sectionsAt(cursor.x, cursor.y)){
+            s.seatAt(cursor.x, cursor.y).ifPresent(seat -> {
+                seatHovered = true;
+                if (!seat.equals(hoveredSeat)) {
+                    observer.onLeave();
+                    hoveredSection = s;
+                    hoveredSeat = seat;
+                    hover.schedule(observer::onHover);
                 }
             });
         }
         if (!seatHovered){
+            hover.cancel();
             observer.onLeave();
-            timer.cancel();
-            timer.purge();
-            timer = new Timer();
         }
         ui.repaint();
     }
@@ -249,7 +296,7 @@ public class Controller {
         delta = delta * (this.scale+2-this.scale%2);
         this.scale = scale;
         delta=delta/(this.scale+2-this.scale%2);
-        ui.repaint();
+        ui.viewChanged();
     }
 
     public boolean toggleMode(Mode mode) {
@@ -294,13 +341,13 @@ public class Controller {
 
             @Override
             public void visit(SeatedSection section) {
-                room.getSections().remove(section);
+                room.removeSection(section);
                 saveRoom();
             }
 
             @Override
             public void visit(StandingSection section) {
-                room.getSections().remove(section);
+                room.removeSection(section);
                 saveRoom();
             }
         });
@@ -333,6 +380,7 @@ public class Controller {
                     } else {
                         select.rotate(-Math.PI/32);
                     }
+                    room.update(select);
                     saveRoom();
                 }
             }
@@ -353,22 +401,88 @@ public class Controller {
         });
     }
 
+    /**
+     * Lays out every auto-seated section at once, before returning: the dialogs calling it edit the new seats
+     * right after.
+     */
     public void autoSetSeat() {
+        profiler.time("autoSetSeat", this::layoutSeats);
+    }
+
+    private void layoutSeats() {
         room.getStage().ifPresent(stage -> {
-            room.getSections().forEach(section -> {
-                section.accept(new SelectionAdapter() {
-                    @Override
-                    public void visit(SeatedSection section) {
-                        if (section.autoSetSeat){
-                            section.autoSetSeats(stage, collider);
-                        }
-                    }
-                });
-            });
+            List<SeatedSection> sections = autoSections();
+            List<SeatLayout> layouts = reflow.layoutAll(sections, stage.getShape().computeCentroid());
+            for (int i = 0; i < sections.size(); i++) {
+                sections.get(i).applyLayout(layouts.get(i));
+            }
             ui.repaint();
         });
     }
 
+    private List<SeatedSection> autoSections() {
+        List<SeatedSection> sections = new ArrayList<>();
+        room.getSections().forEach(section -> reflowTarget(section).ifPresent(sections::add));
+        return sections;
+    }
+
+    /**
+     * Area painted for a selection, row numbers are drawn one seat outside of the section.
+     */
+    private Bounds paintedBounds(Selection selection) {
+        double[] margin = new double[]{0};
+        selection.accept(new SelectionAdapter() {
+            @Override
+            public void visit(SeatedSection section) {
+                margin[0] = Math.max(section.getVitalSpace().getWidth(), section.getVitalSpace().getHeight());
+            }
+        });
+        return selection.getShape().getBounds().grow(margin[0]);
+    }
+
+    private Optional<SeatedSection> reflowTarget(Section section) {
+        SeatedSection[] target = new SeatedSection[1];
+        section.accept(new SelectionAdapter() {
+            @Override
+            public void visit(SeatedSection section) {
+                if (section.autoSetSeat) {
+                    target[0] = section;
+                }
+            }
+        });
+        return Optional.ofNullable(target[0]);
+    }
+
+    /**
+     * The stage moved, every auto-seated section is laid out again in one batch.
+     */
+    private void reflowSeats(boolean debounce) {
+        room.getStage().ifPresent(stage -> {
+            if (debounce) {
+                reflow.scheduleAll(autoSections(), stage, ui::repaint);
+            } else {
+                reflow.submitAll(autoSections(), stage, ui::repaint);
+            }
+        });
+    }
+
+    private void reflowSeats(Section section, boolean debounce) {
+        reflowTarget(section).ifPresent(target -> reflowSeats(target, debounce, ui::repaint));
+    }
+
+    /**
+     * Seats are computed in background, the last committed ones stay displayed until the new ones are ready.
+     */
+    private void reflowSeats(SeatedSection section, boolean debounce, Runnable onCommit) {
+        room.getStage().ifPresent(stage -> {
+            if (debounce) {
+                reflow.schedule(section, stage, onCommit);
+            } else {
+                reflow.submit(section, stage, onCommit);
+            }
+        });
+    }
+
     public boolean createRegularSection(int x, int y, int xInt, int yInt) {
         if (!room.getStage().isPresent()) {
             return false;
@@ -412,7 +526,7 @@ public class Controller {
         } else {
             Section s = SectionFactory.create(mode, shape, room.getVitalSpace());
             if (mode == Mode.IrregularSeatedSection){
-                s.autoSetSeats(room.getStage().get(), collider);
+                profiler.time("seatLayout", () -> s.autoSetSeats(room.getStage().get(), seatLayouts));
             }
             room.addSection(s);
         }
@@ -470,18 +584,17 @@ public class Controller {
     public void setObserver(Observer observer){
         this.observer = Objects.requireNonNull(observer);
     }
-    
-    private void timerReset(){
-        timer.cancel();
-        timer.purge();
-        timer = new Timer();
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                observer.onHover();
-            }
-        };
-        timer.schedule(task, 500);
+
+    public HoverScheduler getHoverScheduler() {
+        return hover;
+    }
+
+    public Profiler getProfiler() {
+        return profiler;
+    }
+
+    public SeatLayoutCache getSeatLayoutCache() {
+        return seatLayouts;
     }
 
     public Seat getHoveredSeat() {
@@ -514,7 +627,7 @@ public class Controller {
         this.offset.x = offset.x;
         this.offset.y = offset.y;
         this.scale = scale;
-        ui.repaint();
+        ui.viewChanged();
     }
 
     private Point magnet(Point cursor){
@@ -559,25 +672,38 @@ public class Controller {
     }
 
     public void saveRoom() {
-        history.add(serializer.toJson(room));
+        profiler.time("saveRoom", this::snapshot);
         observer.onUndoRedo();
     }
 
+    private void snapshot() {
+        FlightEvent event = HISTORY_SNAPSHOT.begin();
+        String json = serializer.toJson(room);
+        history.add(json);
+        event.end();
+        if (event.shouldCommit()) {
+            event.set("bytes", (long) json.getBytes(StandardCharsets.UTF_8).length);
+            event.commit();
+        }
+    }
+
     public void undo() {
         if (history.canUndo()) {
+            reflow.cancelAll();
             room = serializer.fromJson(history.undo());
             selectionHolder.resetSelection(room);
             observer.onUndoRedo();
-            ui.repaint();
+            ui.viewChanged();
         }
     }
 
     public void redo() {
         if (history.canRedo()) {
+            reflow.cancelAll();
             room = serializer.fromJson(history.redo());
             selectionHolder.resetSelection(room);
             observer.onUndoRedo();
-            ui.repaint();
+            ui.viewChanged();
         }
     }
 
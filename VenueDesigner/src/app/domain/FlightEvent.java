@@ -0,0 +1,222 @@
+package app.domain;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Flight recorder event whose type is defined at runtime through reflection, so the build does not depend on jdk.jfr.
+ * Events do nothing when the flight recorder API is missing, as on older Java 8 runtimes, or when their type is
+ * disabled in the recording settings.
+ */
+public final class FlightEvent {
+    private static final String CATEGORY = "Venue Designer";
+    private static final Api API = Api.load();
+    private static final FlightEvent DISABLED = new FlightEvent(null, null);
+
+    private final Type type;
+    private final Object event;
+
+    private FlightEvent(Type type, Object event) {
+        this.type = type;
+        this.event = event;
+    }
+
+    /**
+     * Declares an event type in the "Venue Designer" category, name being the one shown by jfr print.
+     */
+    public static Type type(String name, String label, String description, Field... fields) {
+        return new Type(Objects.requireNonNull(name), label, description, fields);
+    }
+
+    public static Field field(String name, Class<?> type, String label) {
+        return new Field(Objects.requireNonNull(name), Objects.requireNonNull(type), label, null, false);
+    }
+
+    public static Field field(String name, Class<?> type, String label, String description) {
+        return new Field(Objects.requireNonNull(name), Objects.requireNonNull(type), label, description, false);
+    }
+
+    public void end() {
+        if (event != null) {
+            API.invoke(API.end, event);
+        }
+    }
+
+    public boolean shouldCommit() {
+        return event != null && (Boolean) API.invoke(API.shouldCommit, event);
+    }
+
+    public void set(String field, Object value) {
+        if (event != null) {
+            API.invoke(API.set, event, type.indexOf(field), value);
+        }
+    }
+
+    public void commit() {
+        if (event != null) {
+            API.invoke(API.commit, event);
+        }
+    }
+
+    public static final class Field {
+        private final String name;
+        private final Class<?> type;
+        private final String label;
+        private final String description;
+        private final boolean bytes;
+
+        private Field(String name, Class<?> type, String label, String description, boolean bytes) {
+            this.name = name;
+            this.type = type;
+            this.label = label;
+            this.description = description;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Same field, shown as an amount of bytes.
+         */
+        public Field inBytes() {
+            return new Field(name, type, label, description, true);
+        }
+    }
+
+    public static final class Type {
+        private final String[] fields;
+        private final Object factory;
+        private final Object eventType;
+
+        private Type(String name, String label, String description, Field[] fields) {
+            this.fields = new String[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                this.fields[i] = fields[i].name;
+            }
+            this.factory = API == null ? null : API.create(name, label, description, fields);
+            this.eventType = factory == null ? null : API.invoke(API.getEventType, factory);
+        }
+
+        /**
+         * Starts timing an event, a disabled type gives an event doing nothing.
+         */
+        public FlightEvent begin() {
+            if (eventType == null || !(Boolean) API.invoke(API.isEnabled, eventType)) {
+                return DISABLED;
+            }
+            Object event = API.invoke(API.newEvent, factory);
+            API.invoke(API.begin, event);
+            return new FlightEvent(this, event);
+        }
+
+        private int indexOf(String field) {
+            int i = Arrays.asList(fields).indexOf(field);
+            if (i < 0) {
+                throw new IllegalArgumentException(field);
+            }
+            return i;
+        }
+    }
+
+    private static final class Api {
+        private final Class<?> name;
+        private final Class<?> label;
+        private final Class<?> category;
+        private final Class<?> description;
+        private final Class<?> dataAmount;
+        private final Constructor<?> annotation;
+        private final Constructor<?> value;
+        private final Method create;
+        private final Method getEventType;
+        private final Method isEnabled;
+        private final Method newEvent;
+        private final Method begin;
+        private final Method end;
+        private final Method shouldCommit;
+        private final Method set;
+        private final Method commit;
+
+        private Api() throws ReflectiveOperationException {
+            name = Class.forName("jdk.jfr.Name");
+            label = Class.forName("jdk.jfr.Label");
+            category = Class.forName("jdk.jfr.Category");
+            description = Class.forName("jdk.jfr.Description");
+            dataAmount = Class.forName("jdk.jfr.DataAmount");
+            Class<?> annotationElement = Class.forName("jdk.jfr.AnnotationElement");
+            annotation = annotationElement.getConstructor(Class.class, Object.class);
+            value = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class, List.class);
+            Class<?> factory = Class.forName("jdk.jfr.EventFactory");
+            create = factory.getMethod("create", List.class, List.class);
+            getEventType = factory.getMethod("getEventType");
+            isEnabled = Class.forName("jdk.jfr.EventType").getMethod("isEnabled");
+            newEvent = factory.getMethod("newEvent");
+            Class<?> event = Class.forName("jdk.jfr.Event");
+            begin = event.getMethod("begin");
+            end = event.getMethod("end");
+            shouldCommit = event.getMethod("shouldCommit");
+            set = event.getMethod("set", int.class, Object.class);
+            commit = event.getMethod("commit");
+        }
+
+        private static Api load() {
+            try {
+                return new Api();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return null;
+            }
+        }
+
+        private Object create(String eventName, String eventLabel, String eventDescription, Field[] fields) {
+            List<Object> annotations = new ArrayList<>();
+            annotations.add(annotation(name, eventName));
+            annotations.add(annotation(category, new String[]{CATEGORY}));
+            describe(annotations, eventLabel, eventDescription);
+            List<Object> values = new ArrayList<>();
+            for (Field field : fields) {
+                List<Object> fieldAnnotations = new ArrayList<>();
+                describe(fieldAnnotations, field.label, field.description);
+                if (field.bytes) {
+                    fieldAnnotations.add(annotation(dataAmount, "BYTES"));
+                }
+                values.add(newInstance(value, field.type, field.name, fieldAnnotations));
+            }
+            return invoke(create, null, annotations, values);
+        }
+
+        private void describe(List<Object> annotations, String text, String details) {
+            if (text != null) {
+                annotations.add(annotation(label, text));
+            }
+            if (details != null) {
+                annotations.add(annotation(description, details));
+            }
+        }
+
+        private Object annotation(Class<?> type, Object value) {
+            return newInstance(annotation, type, value);
+        }
+
+        private static Object newInstance(Constructor<?> constructor, Object... args) {
+            try {
+                return constructor.newInstance(args);
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException(e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private Object invoke(Method method, Object target, Object... args) {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException(e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
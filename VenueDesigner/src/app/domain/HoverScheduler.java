@@ -0,0 +1,78 @@
+package app.domain;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delays the hover action on a single long lived thread, a new hover replaces the pending one.
+ * Must be called from the UI thread, the action is run on it through the given executor.
+ */
+public final class HoverScheduler {
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hover");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Executor publisher;
+    private final long delayMillis;
+    private Task pending;
+    private long scheduled;
+    private long cancelled;
+
+    public HoverScheduler(Executor publisher, long delayMillis) {
+        this.publisher = Objects.requireNonNull(publisher);
+        this.delayMillis = delayMillis;
+    }
+
+    public void schedule(Runnable action) {
+        cancel();
+        Task task = new Task(Objects.requireNonNull(action));
+        pending = task;
+        scheduled++;
+        task.future = executor.schedule(() -> publisher.execute(() -> run(task)), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drops the pending action, even if it is already waiting on the UI thread.
+     */
+    public void cancel() {
+        if (pending != null) {
+            pending.future.cancel(false);
+            pending = null;
+            cancelled++;
+        }
+    }
+
+    public boolean isPending() {
+        return pending != null;
+    }
+
+    public long getScheduledCount() {
+        return scheduled;
+    }
+
+    public long getCancelledCount() {
+        return cancelled;
+    }
+
+    private void run(Task task) {
+        if (pending != task) {
+            return;
+        }
+        pending = null;
+        task.action.run();
+    }
+
+    private static final class Task {
+        private final Runnable action;
+        private Future<?> future;
+
+        private Task(Runnable action) {
+            this.action = action;
+        }
+    }
+}
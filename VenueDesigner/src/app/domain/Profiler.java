@@ -0,0 +1,149 @@
+package app.domain;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Durations of named operations, each timer keeping its last samples to give rolling percentiles.
+ * Timers are created on first use and listed in that order. Can be used from any thread.
+ */
+public final class Profiler {
+    private static final int SAMPLES = 1024;
+
+    private final LinkedHashMap<String, Samples> timers = new LinkedHashMap<>();
+
+    public void time(String name, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            record(name, System.nanoTime() - start);
+        }
+    }
+
+    public <T> T measure(String name, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(name, System.nanoTime() - start);
+        }
+    }
+
+    public synchronized void record(String name, long nanos) {
+        timers.computeIfAbsent(Objects.requireNonNull(name), key -> new Samples()).add(nanos);
+    }
+
+    public synchronized List<Stats> getStats() {
+        ArrayList<Stats> stats = new ArrayList<>(timers.size());
+        timers.forEach((name, samples) -> stats.add(samples.stats(name)));
+        return stats;
+    }
+
+    public synchronized void reset() {
+        timers.clear();
+    }
+
+    /**
+     * One line per timer, durations in milliseconds.
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write("name,count,p50,p95,p99,max\n");
+        for (Stats stats : getStats()) {
+            writer.write(String.format(Locale.ROOT, "%s,%d,%.3f,%.3f,%.3f,%.3f%n", stats.getName(), stats.getCount(),
+                    stats.getP50(), stats.getP95(), stats.getP99(), stats.getMax()));
+        }
+    }
+
+    public void writeCsv(String path) {
+        try (Writer writer = new FileWriter(path)) {
+            writeCsv(writer);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Percentiles over the last samples of a timer, in milliseconds.
+     */
+    public static final class Stats {
+        private final String name;
+        private final long count;
+        private final double p50;
+        private final double p95;
+        private final double p99;
+        private final double max;
+
+        private Stats(String name, long count, double p50, double p95, double p99, double max) {
+            this.name = name;
+            this.count = count;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * All the samples recorded, not only the ones the percentiles are computed on.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP95() {
+            return p95;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public double getMax() {
+            return max;
+        }
+    }
+
+    private static final class Samples {
+        private final long[] nanos = new long[SAMPLES];
+        private long count;
+
+        private void add(long duration) {
+            nanos[(int) (count % SAMPLES)] = duration;
+            count++;
+        }
+
+        private Stats stats(String name) {
+            long[] sorted = Arrays.copyOf(nanos, (int) Math.min(count, SAMPLES));
+            Arrays.sort(sorted);
+            return new Stats(name, count, percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                    percentile(sorted, 100));
+        }
+
+        /**
+         * Nearest rank.
+         */
+        private static double percentile(long[] sorted, int percent) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1e6;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package app.domain;
 
+import app.domain.collider.Quadtree;
 import app.domain.section.Section;
+import app.domain.selection.Selection;
+import app.domain.shape.Bounds;
 import app.domain.shape.Painter;
 import app.domain.shape.Rectangle;
 import app.domain.shape.Shape;
@@ -13,6 +16,7 @@ import java.util.Optional;
 public final class Room implements Drawable {
     private final ArrayList<Section> sections;
     private final ArrayList<Offer> offers;
+    private final Quadtree<Selection> index;
 
     private Shape shape;
     private double width;
@@ -29,6 +33,7 @@ public final class Room implements Drawable {
         this.width = width;
         this.height = height;
         this.vitalSpace = Objects.requireNonNull(vitalSpace);
+        this.index = new Quadtree<>(Selection::getShape, new Bounds(0, 0, width, height));
     }
 
     @JsonCreator
@@ -48,12 +53,18 @@ public final class Room implements Drawable {
         this.height = height;
         this.vitalSpace = Objects.requireNonNull(vitalSpace);
         this.stage =stage;
+        this.index = new Quadtree<>(Selection::getShape, new Bounds(0, 0, width, height));
+        if (stage != null) {
+            index.add(stage);
+        }
+        sections.forEach(index::add);
     }
 
     public void setDimensions(double width, double height) {
         this.width = width;
         this.height = height;
         this.shape = Rectangle.create(0, 0, width, height, new int[]{20, 38, 52, 255});
+        index.resize(new Bounds(0, 0, width, height));
     }
 
     public double getWidth() { return this.width; }
@@ -71,7 +82,13 @@ public final class Room implements Drawable {
     }
 
     public void setStage(Stage stage) {
+        if (this.stage != null) {
+            index.remove(this.stage);
+        }
         this.stage = stage;
+        if (stage != null) {
+            index.add(stage);
+        }
     }
 
     @JsonIgnore
@@ -79,6 +96,40 @@ public final class Room implements Drawable {
 
     public void addSection(Section section) {
         sections.add(Objects.requireNonNull(section));
+        index.add(section);
+    }
+
+    public void removeSection(Section section) {
+        sections.remove(section);
+        index.remove(section);
+    }
+
+    /**
+     * Keeps the index in line with the stage or section shape, does nothing for other selections.
+     */
+    public void update(Selection selection) {
+        index.update(selection);
+    }
+
+    /**
+     * Stage and sections by bounding box. Seats are found through {@link Section#seatAt(double, double)}.
+     */
+    @JsonIgnore
+    public Quadtree<Selection> getIndex() {
+        return index;
+    }
+
+    /**
+     * Sections whose bounding box contains the point, in the sections order.
+     */
+    public List<Section> sectionsAt(double x, double y) {
+        ArrayList<Section> result = new ArrayList<>();
+        for (Selection selection : index.query(x, y)) {
+            if (selection != stage) {
+                result.add((Section) selection);
+            }
+        }
+        return result;
     }
 
     public List<Section> getSections() {
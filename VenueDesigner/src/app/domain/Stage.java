@@ -78,6 +78,7 @@ public final class Stage implements Selection {
         double x = points.firstElement().x;
         points.get(1).x = x + width;
         points.get(2).x = x + width;
+        shape.invalidate();
     }
 
     public void setHeight(double height) {
@@ -85,12 +86,22 @@ public final class Stage implements Selection {
         double y = points.firstElement().y;
         points.get(2).y = y + height;
         points.get(3).y = y + height;
+        shape.invalidate();
     }
 
     public void setElevation(double elevation) {
         this.elevation = elevation;
     }
 
+    /**
+     * Deep copy, it can be read on another thread while this stage is edited.
+     */
+    public Stage copy() {
+        Shape copy = shape.clone();
+        copy.setColor(shape.getColor().clone());
+        return new Stage(copy, elevation);
+    }
+
     @Override
     @JsonIgnore
     public boolean isAuto(){
@@ -1,5 +1,21 @@
 package app.domain;
 
+import app.domain.shape.Bounds;
+
 public interface UIPanel {
     void repaint();
+
+    /**
+     * Repaints the part of the room covered by the bounds, in room coordinates.
+     */
+    default void repaint(Bounds bounds) {
+        repaint();
+    }
+
+    /**
+     * The room dimensions, the offset or the scale changed, the panel may have to be resized.
+     */
+    default void viewChanged() {
+        repaint();
+    }
 }
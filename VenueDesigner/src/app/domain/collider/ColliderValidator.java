@@ -1,5 +1,7 @@
 package app.domain.collider;
 
+import app.domain.FlightEvent;
+import app.domain.Profiler;
 import app.domain.Room;
 import app.domain.section.Section;
 import app.domain.shape.Point;
@@ -9,44 +11,71 @@ import java.util.Objects;
 import java.util.Vector;
 
 public final class ColliderValidator {
+    private static final FlightEvent.Type COLLISION_CHECK = FlightEvent.type("app.venue.CollisionCheck",
+            "Collision Check", "Shape checked against the room, its stage and its sections",
+            FlightEvent.field("sectionsTested", int.class, "Sections Tested",
+                    "Sections whose bounding box overlaps the shape, checked before a collision was found"),
+            FlightEvent.field("valid", boolean.class, "Valid"));
+
     private final Collider collider;
+    private final Profiler profiler;
 
     public ColliderValidator(Collider collider) {
+        this(collider, new Profiler());
+    }
+
+    /**
+     * Collision checks against the room are timed as "validate".
+     */
+    public ColliderValidator(Collider collider, Profiler profiler) {
         this.collider = Objects.requireNonNull(collider);
+        this.profiler = Objects.requireNonNull(profiler);
     }
 
     public boolean validShape(Shape shape, Room room) {
+        return profiler.measure("validate", () -> isValidShape(shape, room));
+    }
+
+    public boolean validPredictShape(Shape shape, Shape predict, Room room) {
+        return profiler.measure("validate", () -> isValidPredictShape(shape, predict, room));
+    }
+
+    private boolean isValidShape(Shape shape, Room room) {
         if (invalidShapeRoom(shape, room)) {
             return false;
         }
-        if (room.getStage().isPresent()) {
-            if (collider.hasCollide(shape, room.getStage().get().getShape())) {
-                return false;
-            }
-        }
-        for (Section section : room.getSections()) {
-            if (collider.hasCollide(shape, section.getShape())) {
-                return false;
-            }
-        }
-        return true;
+        return !anyCollide(shape, room, null);
     }
 
-    public boolean validPredictShape(Shape shape, Shape predict, Room room) {
+    private boolean isValidPredictShape(Shape shape, Shape predict, Room room) {
         if (invalidShapeRoom(predict, room)) {
             return false;
         }
-        if (room.getStage().isPresent() && shape != room.getStage().get().getShape()) {
-            if (collider.hasCollide(predict, room.getStage().get().getShape())) {
+        return !anyCollide(predict, room, shape);
+    }
+
+    /**
+     * The excluded shape, the one being moved, is not checked.
+     */
+    private boolean anyCollide(Shape shape, Room room, Shape excluded) {
+        FlightEvent event = COLLISION_CHECK.begin();
+        int[] tested = new int[]{0};
+        boolean collide = room.getIndex().anyMatch(shape, selection -> {
+            if (selection.getShape() == excluded) {
                 return false;
             }
-        }
-        for (Section section : room.getSections()) {
-            if (shape != section.getShape() && collider.hasCollide(predict, section.getShape())) {
-                return false;
+            if (selection instanceof Section) {
+                tested[0]++;
             }
+            return collider.hasCollide(shape, selection.getShape());
+        });
+        event.end();
+        if (event.shouldCommit()) {
+            event.set("sectionsTested", tested[0]);
+            event.set("valid", !collide);
+            event.commit();
         }
-        return true;
+        return collide;
     }
 
     public boolean invalidShapeRoom(Shape shape, Room room) {
@@ -0,0 +1,219 @@
+package app.domain.collider;
+
+import app.domain.shape.Point;
+import app.domain.shape.Rectangle;
+import app.domain.shape.Shape;
+
+import java.util.Vector;
+
+/**
+ * Collider working directly on the double coordinates of the domain shapes.
+ * Touching edges are not considered as a collision, like the Area based implementation.
+ */
+public final class GeometryCollider implements Collider {
+    private static final double EPSILON = 1e-9;
+
+    @Override
+    public boolean hasCollide(double x, double y, Shape shape) {
+        return inside(x, y, shape.getPoints());
+    }
+
+    @Override
+    public boolean hasCollide(Shape shape1, Shape shape2) {
+        Vector<Point> points1 = shape1.getPoints();
+        Vector<Point> points2 = shape2.getPoints();
+        if (points1.size() < 3 || points2.size() < 3) {
+            return false;
+        }
+        if (!shape1.getBounds().overlaps(shape2.getBounds()) || empty(points1) || empty(points2)) {
+            return false;
+        }
+        if (shape1 instanceof Rectangle && shape2 instanceof Rectangle) {
+            return !separated(shape1, shape2) && !separated(shape2, shape1);
+        }
+        if (edgesCross(points1, points2)) {
+            return true;
+        }
+        return interiorInside(points1, points2) || interiorInside(points2, points1);
+    }
+
+    @Override
+    public boolean contains(Shape shape1, Shape shape2) {
+        Vector<Point> inner = shape1.getPoints();
+        Vector<Point> outer = shape2.getPoints();
+        if (inner.size() < 3 || empty(inner)) {
+            return true;
+        }
+        for (int i = 0; i < inner.size(); i++) {
+            Point p = inner.get(i);
+            Point next = inner.get((i + 1) % inner.size());
+            if (outside(p.x, p.y, outer) || outside((p.x + next.x) / 2, (p.y + next.y) / 2, outer)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < outer.size(); i++) {
+            Point p = outer.get(i);
+            if (strictlyInside(p.x, p.y, inner)) {
+                return false;
+            }
+        }
+        return !edgesCross(inner, outer);
+    }
+
+    /**
+     * A polygon whose vertices are all aligned has no interior and can not collide.
+     */
+    private static boolean empty(Vector<Point> points) {
+        Point o = points.get(0);
+        for (int i = 1; i < points.size() - 1; i++) {
+            if (cross(o, points.get(i), points.get(i + 1)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Separating axis test for convex polygons, only the edge normals of the first polygon are tried.
+     */
+    private static boolean separated(Shape shape1, Shape shape2) {
+        Vector<Point> points1 = shape1.getPoints();
+        Vector<Point> points2 = shape2.getPoints();
+        double[] normals = shape1.getEdgeNormals();
+        int size = points1.size();
+        for (int i = 0; i < size; i++) {
+            double nx = normals[2 * i];
+            double ny = normals[2 * i + 1];
+            if (nx == 0 && ny == 0) {
+                continue;
+            }
+            Point a = points1.get(i);
+            double max1 = Double.NEGATIVE_INFINITY;
+            for (int j = 0; j < size; j++) {
+                Point p = points1.get(j);
+                max1 = Math.max(max1, nx * (p.x - a.x) + ny * (p.y - a.y));
+            }
+            double min2 = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < points2.size(); j++) {
+                Point p = points2.get(j);
+                min2 = Math.min(min2, nx * (p.x - a.x) + ny * (p.y - a.y));
+            }
+            if (min2 >= max1 - EPSILON) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean edgesCross(Vector<Point> points1, Vector<Point> points2) {
+        int size1 = points1.size();
+        int size2 = points2.size();
+        for (int i = 0; i < size1; i++) {
+            Point a = points1.get(i);
+            Point b = points1.get((i + 1) % size1);
+            for (int j = 0; j < size2; j++) {
+                Point c = points2.get(j);
+                Point d = points2.get((j + 1) % size2);
+                if (properIntersection(a, b, c, d)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean properIntersection(Point a, Point b, Point c, Point d) {
+        if (Math.max(a.x, b.x) < Math.min(c.x, d.x) || Math.max(c.x, d.x) < Math.min(a.x, b.x)
+                || Math.max(a.y, b.y) < Math.min(c.y, d.y) || Math.max(c.y, d.y) < Math.min(a.y, b.y)) {
+            return false;
+        }
+        double d1 = cross(c, d, a);
+        double d2 = cross(c, d, b);
+        double d3 = cross(a, b, c);
+        double d4 = cross(a, b, d);
+        return d1 * d2 < 0 && d3 * d4 < 0;
+    }
+
+    private static double cross(Point o, Point a, Point b) {
+        double value = (a.x - o.x) * (b.y - o.y) - (a.y - o.y) * (b.x - o.x);
+        double scale = Math.abs(a.x - o.x) + Math.abs(a.y - o.y) + Math.abs(b.x - o.x) + Math.abs(b.y - o.y);
+        return Math.abs(value) <= EPSILON * scale * scale ? 0 : value;
+    }
+
+    /**
+     * Checks if a vertex, or the middle of an edge, of the first polygon lies strictly inside the second one.
+     */
+    private static boolean interiorInside(Vector<Point> points1, Vector<Point> points2) {
+        int size = points1.size();
+        for (int i = 0; i < size; i++) {
+            Point a = points1.get(i);
+            Point b = points1.get((i + 1) % size);
+            if (strictlyInside(a.x, a.y, points2)) {
+                return true;
+            }
+            double mx = (a.x + b.x) / 2;
+            double my = (a.y + b.y) / 2;
+            if (strictlyInside(mx, my, points2)) {
+                return true;
+            }
+        }
+        return sameOutline(points1, points2);
+    }
+
+    private static boolean sameOutline(Vector<Point> points1, Vector<Point> points2) {
+        for (int i = 0; i < points1.size(); i++) {
+            Point p = points1.get(i);
+            if (!onBoundary(p.x, p.y, points2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean outside(double x, double y, Vector<Point> points) {
+        return !inside(x, y, points) && !onBoundary(x, y, points);
+    }
+
+    private static boolean strictlyInside(double x, double y, Vector<Point> points) {
+        return inside(x, y, points) && !onBoundary(x, y, points);
+    }
+
+    /**
+     * Even-odd rule, same insideness definition as java.awt.Polygon.
+     */
+    private static boolean inside(double x, double y, Vector<Point> points) {
+        boolean inside = false;
+        int size = points.size();
+        for (int i = 0, j = size - 1; i < size; j = i++) {
+            Point a = points.get(i);
+            Point b = points.get(j);
+            if ((a.y > y) != (b.y > y) && x < (b.x - a.x) * (y - a.y) / (b.y - a.y) + a.x) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private static boolean onBoundary(double x, double y, Vector<Point> points) {
+        int size = points.size();
+        for (int i = 0; i < size; i++) {
+            Point a = points.get(i);
+            Point b = points.get((i + 1) % size);
+            double dx = b.x - a.x;
+            double dy = b.y - a.y;
+            double length = Math.abs(dx) + Math.abs(dy);
+            if (length == 0) {
+                continue;
+            }
+            double cross = dx * (y - a.y) - dy * (x - a.x);
+            if (Math.abs(cross) > EPSILON * Math.max(length * length, 1)) {
+                continue;
+            }
+            double dot = (x - a.x) * dx + (y - a.y) * dy;
+            if (dot >= -EPSILON && dot <= dx * dx + dy * dy + EPSILON) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
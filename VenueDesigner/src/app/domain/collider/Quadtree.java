@@ -0,0 +1,272 @@
+package app.domain.collider;
+
+import app.domain.shape.Bounds;
+import app.domain.shape.Shape;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Quadtree of bounding boxes, each item is kept in the smallest node fully containing its box.
+ * Items outside of the root bounds stay in the root, queries always look at it.
+ * Query results are given back in insertion order, or by distance for the nearest ones.
+ */
+public final class Quadtree<T> {
+    private static final int CAPACITY = 8;
+    private static final int MAX_DEPTH = 8;
+
+    private final IdentityHashMap<T, Entry<T>> entries = new IdentityHashMap<>();
+    private final Function<T, Shape> shapeOf;
+    private Node<T> root;
+    private long sequence;
+
+    public Quadtree(Function<T, Shape> shapeOf, Bounds bounds) {
+        this.shapeOf = Objects.requireNonNull(shapeOf);
+        this.root = new Node<>(Objects.requireNonNull(bounds), 0);
+    }
+
+    public void add(T item) {
+        Entry<T> entry = new Entry<>(Objects.requireNonNull(item), sequence++);
+        Entry<T> previous = entries.put(item, entry);
+        if (previous != null) {
+            previous.node.entries.remove(previous);
+        }
+        insert(entry);
+    }
+
+    public void remove(T item) {
+        Entry<T> entry = entries.remove(item);
+        if (entry != null) {
+            entry.node.entries.remove(entry);
+        }
+    }
+
+    /**
+     * Moves the item to its new node if its shape changed since it was inserted.
+     */
+    public void update(T item) {
+        Entry<T> entry = entries.get(item);
+        if (entry == null || entry.isCurrent(shapeOf.apply(item))) {
+            return;
+        }
+        entry.node.entries.remove(entry);
+        insert(entry);
+    }
+
+    /**
+     * Rebuilds the tree over new root bounds, keeping the items and their order.
+     */
+    public void resize(Bounds bounds) {
+        root = new Node<>(Objects.requireNonNull(bounds), 0);
+        ArrayList<Entry<T>> items = new ArrayList<>(entries.values());
+        items.sort(Comparator.comparingLong(entry -> entry.sequence));
+        items.forEach(this::insert);
+    }
+
+    public void clear() {
+        root = new Node<>(root.bounds, 0);
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean contains(T item) {
+        return entries.containsKey(item);
+    }
+
+    /**
+     * Returns true if one of the items whose bounding box overlaps the given shape's one matches the predicate.
+     */
+    public boolean anyMatch(Shape shape, Predicate<T> predicate) {
+        return anyMatch(root, shape.getBounds(), predicate);
+    }
+
+    /**
+     * Items whose bounding box contains the point.
+     */
+    public List<T> query(double x, double y) {
+        ArrayList<Entry<T>> found = new ArrayList<>();
+        collect(root, new Bounds(x, y, x, y), found);
+        return items(found);
+    }
+
+    /**
+     * Items whose bounding box intersects the rectangle.
+     */
+    public List<T> query(Bounds bounds) {
+        ArrayList<Entry<T>> found = new ArrayList<>();
+        collect(root, Objects.requireNonNull(bounds), found);
+        return items(found);
+    }
+
+    /**
+     * At most k items, closest bounding boxes first.
+     */
+    public List<T> nearest(double x, double y, int k) {
+        ArrayList<T> result = new ArrayList<>();
+        PriorityQueue<Candidate<T>> queue = new PriorityQueue<>(Comparator.comparingDouble(c -> c.distance));
+        queue.add(new Candidate<>(0, root, null));
+        while (!queue.isEmpty() && result.size() < k) {
+            Candidate<T> candidate = queue.poll();
+            if (candidate.entry != null) {
+                result.add(candidate.entry.item);
+                continue;
+            }
+            Node<T> node = candidate.node;
+            for (Entry<T> entry : node.entries) {
+                queue.add(new Candidate<>(entry.bounds.distance(x, y), null, entry));
+            }
+            if (node.children != null) {
+                for (Node<T> child : node.children) {
+                    queue.add(new Candidate<>(child.bounds.distance(x, y), child, null));
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean anyMatch(Node<T> node, Bounds bounds, Predicate<T> predicate) {
+        for (Entry<T> entry : node.entries) {
+            if (entry.bounds.intersects(bounds) && predicate.test(entry.item)) {
+                return true;
+            }
+        }
+        if (node.children != null) {
+            for (Node<T> child : node.children) {
+                if (child.bounds.intersects(bounds) && anyMatch(child, bounds, predicate)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void collect(Node<T> node, Bounds bounds, List<Entry<T>> found) {
+        for (Entry<T> entry : node.entries) {
+            if (entry.bounds.intersects(bounds)) {
+                found.add(entry);
+            }
+        }
+        if (node.children != null) {
+            for (Node<T> child : node.children) {
+                if (child.bounds.intersects(bounds)) {
+                    collect(child, bounds, found);
+                }
+            }
+        }
+    }
+
+    private List<T> items(ArrayList<Entry<T>> found) {
+        found.sort(Comparator.comparingLong(entry -> entry.sequence));
+        ArrayList<T> result = new ArrayList<>(found.size());
+        for (Entry<T> entry : found) {
+            result.add(entry.item);
+        }
+        return result;
+    }
+
+    private void insert(Entry<T> entry) {
+        Shape shape = shapeOf.apply(entry.item);
+        entry.shape = shape;
+        entry.version = shape.getVersion();
+        entry.bounds = shape.getBounds();
+
+        Node<T> node = root;
+        while (node.children != null) {
+            Node<T> child = node.childContaining(entry.bounds);
+            if (child == null) {
+                break;
+            }
+            node = child;
+        }
+        node.add(entry);
+        if (node.children == null && node.entries.size() > CAPACITY && node.depth < MAX_DEPTH) {
+            node.split();
+        }
+    }
+
+    private static final class Node<T> {
+        private final Bounds bounds;
+        private final int depth;
+        private final ArrayList<Entry<T>> entries = new ArrayList<>();
+        private Node<T>[] children;
+
+        private Node(Bounds bounds, int depth) {
+            this.bounds = bounds;
+            this.depth = depth;
+        }
+
+        private void add(Entry<T> entry) {
+            entries.add(entry);
+            entry.node = this;
+        }
+
+        private Node<T> childContaining(Bounds box) {
+            for (Node<T> child : children) {
+                if (child.bounds.contains(box)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private void split() {
+            double midX = (bounds.minX + bounds.maxX) / 2;
+            double midY = (bounds.minY + bounds.maxY) / 2;
+            children = newNodes(4);
+            children[0] = new Node<>(new Bounds(bounds.minX, bounds.minY, midX, midY), depth + 1);
+            children[1] = new Node<>(new Bounds(midX, bounds.minY, bounds.maxX, midY), depth + 1);
+            children[2] = new Node<>(new Bounds(bounds.minX, midY, midX, bounds.maxY), depth + 1);
+            children[3] = new Node<>(new Bounds(midX, midY, bounds.maxX, bounds.maxY), depth + 1);
+            ArrayList<Entry<T>> kept = new ArrayList<>(entries);
+            entries.clear();
+            for (Entry<T> entry : kept) {
+                Node<T> child = childContaining(entry.bounds);
+                (child == null ? this : child).add(entry);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Node<T>[] newNodes(int length) {
+            return (Node<T>[]) new Node<?>[length];
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long sequence;
+        private Node<T> node;
+        private Shape shape;
+        private int version;
+        private Bounds bounds;
+
+        private Entry(T item, long sequence) {
+            this.item = item;
+            this.sequence = sequence;
+        }
+
+        private boolean isCurrent(Shape shape) {
+            return this.shape == shape && version == shape.getVersion();
+        }
+    }
+
+    private static final class Candidate<T> {
+        private final double distance;
+        private final Node<T> node;
+        private final Entry<T> entry;
+
+        private Candidate(double distance, Node<T> node, Entry<T> entry) {
+            this.distance = distance;
+            this.node = node;
+            this.entry = entry;
+        }
+    }
+}
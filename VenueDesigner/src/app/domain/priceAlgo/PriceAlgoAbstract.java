@@ -1,6 +1,40 @@
 package app.domain.priceAlgo;
 
+import app.domain.FlightEvent;
+import app.domain.seat.Seat;
+import app.domain.section.Section;
+import app.domain.shape.Point;
+
+import java.util.List;
+
 abstract class PriceAlgoAbstract implements PriceAlgo{
+    private static final FlightEvent.Type PRICING = FlightEvent.type("app.venue.Pricing", "Pricing",
+            "Prices spread over the seats by distance to the stage",
+            FlightEvent.field("algorithm", String.class, "Algorithm"),
+            FlightEvent.field("sections", int.class, "Sections"),
+            FlightEvent.field("seats", int.class, "Seats"));
+
+    @Override
+    public final void extremeDistribution(List<Section> sections, Point stageCenter, double minPrice, double maxPrice) {
+        FlightEvent event = PRICING.begin();
+        distribute(sections, stageCenter, minPrice, maxPrice);
+        event.end();
+        if (event.shouldCommit()) {
+            int seats = 0;
+            for (Section section : sections) {
+                for (Seat[] row : section.getSeats()) {
+                    seats += row.length;
+                }
+            }
+            event.set("algorithm", getClass().getSimpleName());
+            event.set("sections", sections.size());
+            event.set("seats", seats);
+            event.commit();
+        }
+    }
+
+    abstract void distribute(List<Section> sections, Point stageCenter, double minPrice, double maxPrice);
+
     static double computePrice(double dist, double minDist, double maxDist, double minPrice, double maxPrice) {
         double dx = maxDist-minDist;
         double dy = maxPrice-minPrice;
@@ -10,7 +10,7 @@ import java.util.List;
 
 public final class RowAlgo extends PriceAlgoAbstract{
     @Override
-    public void extremeDistribution(List<Section> sections, Point stageCenter, double minPrice, double maxPrice) {
+    void distribute(List<Section> sections, Point stageCenter, double minPrice, double maxPrice) {
         ArrayList<Double> distances = new ArrayList<>();
         ArrayList<Seat[]> rows = new ArrayList<>();
 
@@ -38,7 +38,7 @@ public final class RowAlgo extends PriceAlgoAbstract{
             for (Seat seat: rows.get(i)) {
                 seat.setPrice(rowPrice);
                 int[] color = {k, 0, 0, 255};
-                seat.getShape().setColor(color);
+                seat.setColor(color);
             }
         }
     }
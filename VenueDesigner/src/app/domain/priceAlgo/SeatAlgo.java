@@ -10,7 +10,7 @@ import java.util.List;
 
 public final class SeatAlgo extends PriceAlgoAbstract {
     @Override
-    public void extremeDistribution(List<Section> sections, Point stageCenter, double minPrice, double maxPrice) {
+    void distribute(List<Section> sections, Point stageCenter, double minPrice, double maxPrice) {
         ArrayList<Double> distances = new ArrayList<>();
         ArrayList<Seat> seatArray = new ArrayList<>();
 
@@ -36,7 +36,7 @@ public final class SeatAlgo extends PriceAlgoAbstract {
             seatArray.get(i).setPrice(seatPrice);
             int k = (int) computePrice(distances.get(i),minDist,maxDist,0,255);// on utilise cette fct pour obtenir la couleur
             int[] color = {0,0,k,255};
-            seatArray.get(i).getShape().setColor(color);
+            seatArray.get(i).setColor(color);
         }
 
     }
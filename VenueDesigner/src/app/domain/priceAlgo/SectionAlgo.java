@@ -10,7 +10,7 @@ import java.util.List;
 
 public final class SectionAlgo extends PriceAlgoAbstract{
     @Override
-    public void extremeDistribution(List<Section> sections, Point stageCenter, double minPrice, double maxPrice) {
+    void distribute(List<Section> sections, Point stageCenter, double minPrice, double maxPrice) {
         ArrayList<Double> distances = new ArrayList<>();
 
         double minDist = Double.MAX_VALUE;
@@ -31,7 +31,7 @@ public final class SectionAlgo extends PriceAlgoAbstract{
                 for (Seat seat: rows){
                     seat.setPrice(sectionPrice);
                     int[] color = {k,0,0,255};
-                    seat.getShape().setColor(color);
+                    seat.setColor(color);
                 }
             }
         }
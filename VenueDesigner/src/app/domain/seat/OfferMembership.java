@@ -0,0 +1,205 @@
+package app.domain.seat;
+
+import app.domain.Offer;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Seats of a table holding each offer, kept as one bitmap of seat indexes per offer.
+ * Offers are matched with equals, offers read from a file are distinct instances of the room ones.
+ */
+public final class OfferMembership {
+    private final ArrayList<Offer> offers = new ArrayList<>();
+    private final ArrayList<BitSet> members = new ArrayList<>();
+    private final HashMap<Offer, Integer> index = new HashMap<>();
+
+    public void add(Offer offer, int seat) {
+        bits(offer).set(seat);
+    }
+
+    public void remove(Offer offer, int seat) {
+        int i = indexOf(offer);
+        if (i >= 0) {
+            members.get(i).clear(seat);
+        }
+    }
+
+    public boolean contains(Offer offer, int seat) {
+        int i = indexOf(offer);
+        return i >= 0 && members.get(i).get(seat);
+    }
+
+    public int count(Offer offer) {
+        int i = indexOf(offer);
+        return i < 0 ? 0 : members.get(i).cardinality();
+    }
+
+    /**
+     * Copy of the seats holding the offer.
+     */
+    public BitSet members(Offer offer) {
+        int i = indexOf(offer);
+        return i < 0 ? new BitSet() : (BitSet) members.get(i).clone();
+    }
+
+    /**
+     * Seats holding at least one of the offers.
+     */
+    public BitSet union(Collection<Offer> offers) {
+        BitSet result = new BitSet();
+        for (Offer offer : offers) {
+            int i = indexOf(offer);
+            if (i >= 0) {
+                result.or(members.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Seats holding all the offers.
+     */
+    public BitSet intersection(Collection<Offer> offers) {
+        BitSet result = null;
+        for (Offer offer : offers) {
+            int i = indexOf(offer);
+            if (i < 0) {
+                return new BitSet();
+            }
+            if (result == null) {
+                result = (BitSet) members.get(i).clone();
+            } else {
+                result.and(members.get(i));
+            }
+        }
+        return result == null ? new BitSet() : result;
+    }
+
+    public List<Offer> getOffers() {
+        return Collections.unmodifiableList(offers);
+    }
+
+    /**
+     * Live list of the offers of a seat. Adding an offer the seat already holds leaves the list unchanged,
+     * add then returns false.
+     */
+    List<Offer> of(int seat) {
+        return new SeatOffers(seat);
+    }
+
+    /**
+     * Copies the offers of the first seats of another table, seat indexes being kept.
+     */
+    void copy(OfferMembership from, int count) {
+        for (int i = 0; i < from.offers.size(); i++) {
+            BitSet seats = from.members.get(i).get(0, count);
+            if (!seats.isEmpty()) {
+                bits(from.offers.get(i)).or(seats);
+            }
+        }
+    }
+
+    /**
+     * Offers are mutable, one edited since it was added is only found by the scan, which then rebuilds the index.
+     */
+    private int indexOf(Offer offer) {
+        Integer i = index.get(offer);
+        if (i != null) {
+            return i;
+        }
+        int found = offers.indexOf(offer);
+        if (found >= 0) {
+            index.clear();
+            for (int j = 0; j < offers.size(); j++) {
+                index.putIfAbsent(offers.get(j), j);
+            }
+        }
+        return found;
+    }
+
+    private BitSet bits(Offer offer) {
+        int i = indexOf(offer);
+        if (i < 0) {
+            i = offers.size();
+            offers.add(Objects.requireNonNull(offer));
+            members.add(new BitSet());
+            index.put(offer, i);
+        }
+        return members.get(i);
+    }
+
+    private final class SeatOffers extends AbstractList<Offer> {
+        private final int seat;
+
+        private SeatOffers(int seat) {
+            this.seat = seat;
+        }
+
+        @Override
+        public Offer get(int index) {
+            int n = 0;
+            for (int i = 0; i < offers.size(); i++) {
+                if (members.get(i).get(seat) && n++ == index) {
+                    return offers.get(i);
+                }
+            }
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+
+        @Override
+        public int size() {
+            int n = 0;
+            for (BitSet bits : members) {
+                if (bits.get(seat)) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Offer && OfferMembership.this.contains((Offer) o, seat);
+        }
+
+        @Override
+        public boolean add(Offer offer) {
+            if (contains(offer)) {
+                return false;
+            }
+            OfferMembership.this.add(offer, seat);
+            return true;
+        }
+
+        /**
+         * The position is ignored, offers are listed in the order they were first added to the table.
+         */
+        @Override
+        public void add(int index, Offer offer) {
+            add(offer);
+        }
+
+        @Override
+        public Offer remove(int index) {
+            Offer offer = get(index);
+            OfferMembership.this.remove(offer, seat);
+            return offer;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            OfferMembership.this.remove((Offer) o, seat);
+            return true;
+        }
+    }
+}
@@ -1,12 +1,8 @@
 package app.domain.seat;
 
-import app.domain.Observer;
 import app.domain.Offer;
-import app.domain.VitalSpace;
 import app.domain.selection.Selection;
 import app.domain.selection.SelectionVisitor;
-import app.domain.shape.Point;
-import app.domain.shape.Rectangle;
 import app.domain.shape.Shape;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -15,46 +11,14 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Vector;
 
 public final class Seat implements Selection {
-    private final ArrayList<Offer> offers;
-    private final int column;
-    private final int row;
-    private final Shape shape;
-    private double price;
-    private int number;
-
-    public Seat(int column, int row, VitalSpace vs, Point p0, int number) {
-        this.offers = new ArrayList<>();
-        this.column = column;
-        this.row = row;
-        Vector<Point> points = new Vector<>();
-        points.add(new Point(p0.x+(column)*vs.getWidth(), p0.y+(row)*vs.getHeight()));
-        points.add(new Point(p0.x+(column+1)*vs.getWidth(), p0.y+(row)*vs.getHeight()));
-        points.add(new Point(p0.x+(column+1)*vs.getWidth(), p0.y+(row+1)*vs.getHeight()));
-        points.add(new Point(p0.x+(column)*vs.getWidth(), p0.y+(row+1)*vs.getHeight()));
-        shape = new Rectangle(points, new int[4]);
-        price = 0.0;
-        this.number = number;
-    }
-
-    public Seat(int row, int column, VitalSpace vs, Point p0, double theta, int number, boolean autoPositioning) {
-        this.offers = new ArrayList<>();
-        this.column = column;
-        this.row = row;
-        double x = 0;
-        double y = 0;
-        if (autoPositioning){
-            x = (row)*vs.getHeight();
-            y = (column)*vs.getWidth();
-        }
-        double x1 = x*Math.cos(-theta) - y*Math.sin(-theta);
-        double y1 = x*Math.sin(-theta) + y*Math.cos(-theta);
-        int[] color = {0,0,0,255};
-        shape = Rectangle.create(p0.x+x1,p0.y-y1,vs.getWidth(),vs.getHeight(), color, theta);
-        price = 0.0;
-        this.number = number;
+    private final SeatTable table;
+    private final int index;
+
+    Seat(SeatTable table, int index) {
+        this.table = Objects.requireNonNull(table);
+        this.index = index;
     }
 
     @JsonCreator
@@ -65,61 +29,80 @@ public final class Seat implements Selection {
             @JsonProperty("shape") Shape shape,
             @JsonProperty("price") double price
     ) {
-        this.offers = offers;
-        this.column = column;
-        this.row = row;
-        this.shape = shape;
-        this.price = price;
+        this(SeatTable.detached(shape, column, row), 0);
+        if (offers != null) {
+            table.getOffers(index).addAll(offers);
+        }
+        table.setPrice(index, price);
+    }
+
+    SeatTable getTable() {
+        return table;
+    }
+
+    int getIndex() {
+        return index;
     }
 
     public double getPrice() {
-        return price;
+        return table.getPrice(index);
     }
 
     public void setPrice(double price) {
-        this.price = price;
+        table.setPrice(index, price);
     }
 
     public int getRow() {
-        return row;
+        return table.getRow(index);
     }
 
     public int getColumn() {
-        return column;
+        return table.getColumn(index);
     }
 
     public int getNumber(){
-        return number;
+        return table.getNumber(index);
     }
 
     public void setNumber(int number) {
-        this.number = number;
+        table.setNumber(index, number);
+    }
+
+    public List<Offer> getOffers() {
+        return table.getOffers(index);
+    }
+
+    @JsonIgnore
+    public int[] getColor() {
+        return table.getColor(index);
     }
 
-    public ArrayList<Offer> getOffers() {
-        return offers;
+    @JsonIgnore
+    public void setColor(int[] color) {
+        table.setColor(index, Objects.requireNonNull(color));
     }
 
     @Override
     @JsonIgnore
     public boolean isSelected() {
-        return shape.isSelected();
+        return table.isSelected(index);
     }
 
     @Override
     @JsonIgnore
     public void setSelected(boolean selected) {
-        shape.setSelected(selected);
+        table.setSelected(index, selected);
     }
 
     @Override
-    public void move(double x, double y){
-        shape.move(x, y);
-    }
+    public void move(double x, double y){}
 
+    /**
+     * Rectangle built from the table, changing it does not change the seat.
+     */
     @Override
     public Shape getShape(){
-        return shape;
+        return table.getShape(index);
     }
 
     @Override
@@ -130,10 +113,6 @@ public final class Seat implements Selection {
     @Override
     public void rotate(double thetaRadian){}
 
-    public void rotate(double thetaRadian, Point sectionCenter){
-        shape.rotate(thetaRadian, sectionCenter);
-    }
-
     @Override
     @JsonIgnore
     public boolean isAuto(){
@@ -141,5 +120,18 @@ public final class Seat implements Selection {
     }
 
     @Override
-    public String toString() { return Integer.toString(number); }
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Seat seat = (Seat) o;
+        return index == seat.index && table == seat.table;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(table) + index;
+    }
+
+    @Override
+    public String toString() { return Integer.toString(getNumber()); }
 }
@@ -0,0 +1,609 @@
+package app.domain.seat;
+
+import app.domain.Offer;
+import app.domain.VitalSpace;
+import app.domain.shape.Bounds;
+import app.domain.shape.Point;
+import app.domain.shape.Rectangle;
+import app.domain.shape.Shape;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Vector;
+
+/**
+ * Seats of a section stored column-wise, one primitive array per attribute.
+ * All the seats of a table share the same size and orientation, so only the origin of each seat is kept,
+ * its rectangle is built on demand. {@link Seat} objects are views on this table.
+ * <p>
+ * A grid table keeps no origin at all, they are derived from the first seat, the angle and the row and column.
+ * Moving or rotating a table only changes the transform applied to these base origins.
+ */
+public final class SeatTable {
+    private static final int[] DEFAULT_COLOR = {0, 0, 0, 255};
+    private static final double EPSILON = 1e-9;
+
+    private final int[] rowStart;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] prices;
+    private final int[] numbers;
+    private final int[] rows;
+    private final int[] columns;
+    private final int[] colors;
+    private final OfferMembership offers = new OfferMembership();
+    private final BitSet selected = new BitSet();
+    private final ArrayList<int[]> palette = new ArrayList<>();
+    private final HashMap<Integer, Integer> paletteIndex = new HashMap<>();
+    private final double width;
+    private final double height;
+    private final double baseTheta;
+    private double gridX;
+    private double gridY;
+    private double gridCos;
+    private double gridSin;
+    private int gridColumns;
+    private double rotation;
+    private double cos = 1;
+    private double sin = 0;
+    private double tx;
+    private double ty;
+    private int modCount;
+    private Seat[][] views;
+    private double[] us;
+    private double[] vs;
+    private boolean sorted;
+
+    private SeatTable(int[] rowLengths, double[] xs, double[] ys, double width, double height, double theta) {
+        this.rowStart = new int[rowLengths.length + 1];
+        for (int r = 0; r < rowLengths.length; r++) {
+            rowStart[r + 1] = rowStart[r] + rowLengths[r];
+        }
+        int size = rowStart[rowLengths.length];
+        this.xs = xs;
+        this.ys = ys;
+        this.prices = new double[size];
+        this.numbers = new int[size];
+        this.rows = new int[size];
+        this.columns = new int[size];
+        this.colors = new int[size];
+        for (int r = 0; r < rowLengths.length; r++) {
+            for (int i = rowStart[r]; i < rowStart[r + 1]; i++) {
+                numbers[i] = i + 1;
+                rows[i] = r;
+                columns[i] = i - rowStart[r];
+            }
+        }
+        this.width = width;
+        this.height = height;
+        this.baseTheta = theta;
+        paletteIndex(DEFAULT_COLOR);
+    }
+
+    /**
+     * The base origins and rows are never written once the table is built, they are shared.
+     */
+    private SeatTable(SeatTable from) {
+        this.rowStart = from.rowStart;
+        this.xs = from.xs;
+        this.ys = from.ys;
+        this.prices = from.prices.clone();
+        this.numbers = from.numbers.clone();
+        this.rows = from.rows.clone();
+        this.columns = from.columns.clone();
+        this.colors = from.colors.clone();
+        this.offers.copy(from.offers, from.size());
+        this.selected.or(from.selected);
+        for (int[] color : from.palette) {
+            palette.add(color.clone());
+        }
+        this.paletteIndex.putAll(from.paletteIndex);
+        this.width = from.width;
+        this.height = from.height;
+        this.baseTheta = from.baseTheta;
+        this.gridX = from.gridX;
+        this.gridY = from.gridY;
+        this.gridCos = from.gridCos;
+        this.gridSin = from.gridSin;
+        this.gridColumns = from.gridColumns;
+        this.rotation = from.rotation;
+        this.cos = from.cos;
+        this.sin = from.sin;
+        this.tx = from.tx;
+        this.ty = from.ty;
+        this.modCount = from.modCount;
+    }
+
+    /**
+     * Seats are numbered from 1 in row order, at the given origins.
+     */
+    public static SeatTable of(int[] rowLengths, double[] xs, double[] ys, double width, double height, double theta) {
+        return new SeatTable(rowLengths, Objects.requireNonNull(xs), Objects.requireNonNull(ys), width, height, theta);
+    }
+
+    /**
+     * Grid of seats facing theta, the first seat starting at p0.
+     */
+    public static SeatTable grid(int rowCount, int columnCount, VitalSpace vs, Point p0, double theta) {
+        int[] rowLengths = new int[rowCount];
+        for (int r = 0; r < rowCount; r++) {
+            rowLengths[r] = columnCount;
+        }
+        SeatTable table = new SeatTable(rowLengths, null, null, vs.getWidth(), vs.getHeight(), theta);
+        table.gridX = p0.x;
+        table.gridY = p0.y;
+        table.gridCos = Math.cos(-theta);
+        table.gridSin = Math.sin(-theta);
+        table.gridColumns = columnCount;
+        return table;
+    }
+
+    /**
+     * Table holding a single seat, size and orientation are read from its rectangle.
+     */
+    static SeatTable detached(Shape shape, int column, int row) {
+        Vector<Point> points = shape.getPoints();
+        Point p0 = points.elementAt(0);
+        Point p1 = points.elementAt(1);
+        Point p3 = points.elementAt(3);
+        double width = Math.sqrt(Math.pow(p1.x - p0.x, 2) + Math.pow(p1.y - p0.y, 2));
+        double height = Math.sqrt(Math.pow(p3.x - p0.x, 2) + Math.pow(p3.y - p0.y, 2));
+        double theta = Math.atan2(p3.y - p0.y, p3.x - p0.x);
+        SeatTable table = of(new int[]{1}, new double[]{p0.x}, new double[]{p0.y}, width, height, theta);
+        table.rows[0] = row;
+        table.columns[0] = column;
+        table.setColor(0, shape.getColor());
+        return table;
+    }
+
+    /**
+     * Gathers seats, typically detached ones read from a file, in a single table.
+     * The size and orientation read from the rectangles are replaced by the expected ones when they match,
+     * so saving the table again gives back the same rectangles.
+     */
+    public static SeatTable copyOf(Seat[][] seats, VitalSpace vs, double theta) {
+        int[] rowLengths = new int[seats.length];
+        int size = 0;
+        SeatTable first = null;
+        for (int r = 0; r < seats.length; r++) {
+            rowLengths[r] = seats[r].length;
+            size += seats[r].length;
+            if (first == null && seats[r].length > 0) {
+                first = seats[r][0].getTable();
+            }
+        }
+        if (first == null) {
+            return of(rowLengths, new double[0], new double[0], 0, 0, 0);
+        }
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        int i = 0;
+        for (Seat[] row : seats) {
+            for (Seat seat : row) {
+                xs[i] = seat.getTable().getX(seat.getIndex());
+                ys[i] = seat.getTable().getY(seat.getIndex());
+                i++;
+            }
+        }
+        SeatTable table = of(rowLengths, xs, ys,
+                Math.abs(first.width - vs.getWidth()) < EPSILON ? vs.getWidth() : first.width,
+                Math.abs(first.height - vs.getHeight()) < EPSILON ? vs.getHeight() : first.height,
+                Math.abs(Math.IEEEremainder(first.getTheta() - theta, 2 * Math.PI)) < EPSILON ? theta : first.getTheta());
+        table.copyAttributes(seats);
+        return table;
+    }
+
+    /**
+     * Same as {@link #copyOf} for seats laid out as a grid by the given vital space and angle,
+     * the seat origins read from the rectangles are dropped.
+     */
+    public static SeatTable gridOf(Seat[][] seats, VitalSpace vs, double theta) {
+        if (seats.length == 0 || seats[0].length == 0) {
+            return copyOf(seats, vs, theta);
+        }
+        for (Seat[] row : seats) {
+            if (row.length != seats[0].length) {
+                return copyOf(seats, vs, theta);
+            }
+        }
+        Seat first = seats[0][0];
+        Point p0 = new Point(first.getTable().getX(first.getIndex()), first.getTable().getY(first.getIndex()));
+        SeatTable table = grid(seats.length, seats[0].length, vs, p0, theta);
+        table.copyAttributes(seats);
+        return table;
+    }
+
+    private void copyAttributes(Seat[][] seats) {
+        int i = 0;
+        for (Seat[] row : seats) {
+            for (Seat seat : row) {
+                SeatTable from = seat.getTable();
+                int j = seat.getIndex();
+                prices[i] = from.prices[j];
+                numbers[i] = from.numbers[j];
+                rows[i] = from.rows[j];
+                columns[i] = from.columns[j];
+                setColor(i, from.palette.get(from.colors[j]));
+                for (Offer offer : from.getOffers(j)) {
+                    offers.add(offer, i);
+                }
+                setSelected(i, from.isSelected(j));
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Independent copy, it can be read on another thread while this table is edited.
+     */
+    public SeatTable copy() {
+        return new SeatTable(this);
+    }
+
+    public int size() {
+        return rowStart[rowStart.length - 1];
+    }
+
+    public int getRows() {
+        return rowStart.length - 1;
+    }
+
+    public int getColumns(int row) {
+        return rowStart[row + 1] - rowStart[row];
+    }
+
+    public int index(int row, int column) {
+        return rowStart[row] + column;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public double getTheta() {
+        return baseTheta + rotation;
+    }
+
+    public boolean isGrid() {
+        return xs == null;
+    }
+
+    public double getX(int index) {
+        double x = baseX(index);
+        if (rotation == 0) {
+            return x + tx;
+        }
+        return x*cos - baseY(index)*sin + tx;
+    }
+
+    public double getY(int index) {
+        double y = baseY(index);
+        if (rotation == 0) {
+            return y + ty;
+        }
+        return baseX(index)*sin + y*cos + ty;
+    }
+
+    public double getPrice(int index) {
+        return prices[index];
+    }
+
+    public void setPrice(int index, double price) {
+        prices[index] = price;
+    }
+
+    public int getNumber(int index) {
+        return numbers[index];
+    }
+
+    public void setNumber(int index, int number) {
+        numbers[index] = number;
+    }
+
+    public int getRow(int index) {
+        return rows[index];
+    }
+
+    public int getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Returns a copy, the palette entries are shared by every seat of the same color.
+     */
+    public int[] getColor(int index) {
+        return palette.get(colors[index]).clone();
+    }
+
+    public void setColor(int index, int[] color) {
+        int paletteIndex = paletteIndex(color);
+        if (colors[index] != paletteIndex) {
+            colors[index] = paletteIndex;
+            modCount++;
+        }
+    }
+
+    public List<Offer> getOffers(int index) {
+        return offers.of(index);
+    }
+
+    public OfferMembership getOfferMembership() {
+        return offers;
+    }
+
+    /**
+     * Copies the prices, offers and colors of the first seats of another table, by seat index.
+     */
+    public void copyAttributes(SeatTable from, boolean roundPrices) {
+        int count = Math.min(size(), from.size());
+        for (int i = 0; i < count; i++) {
+            prices[i] = roundPrices ? (int) from.prices[i] : from.prices[i];
+            setColor(i, from.palette.get(from.colors[i]));
+        }
+        offers.copy(from.offers, count);
+    }
+
+    public boolean isSelected(int index) {
+        return selected.get(index);
+    }
+
+    public void setSelected(int index, boolean selected) {
+        if (this.selected.get(index) != selected) {
+            this.selected.set(index, selected);
+            modCount++;
+        }
+    }
+
+    /**
+     * Selects exactly the given seats.
+     */
+    public void setSelected(BitSet seats) {
+        selected.clear();
+        selected.or(seats);
+        modCount++;
+    }
+
+    /**
+     * Incremented whenever something drawn changes: positions, colors or selection.
+     */
+    public int getModCount() {
+        return modCount;
+    }
+
+    public void move(double x, double y) {
+        tx += x;
+        ty += y;
+        modCount++;
+    }
+
+    public void rotate(double thetaRadian, Point center) {
+        double cos = Math.cos(thetaRadian);
+        double sin = Math.sin(thetaRadian);
+        double dx = tx - center.x;
+        double dy = ty - center.y;
+        tx = dx*cos - dy*sin + center.x;
+        ty = dx*sin + dy*cos + center.y;
+        rotation += thetaRadian;
+        this.cos = Math.cos(rotation);
+        this.sin = Math.sin(rotation);
+        modCount++;
+    }
+
+    /**
+     * Index of the seat containing the point, or -1.
+     * The point is brought back in the seat frame, where a grid seat is found by dividing by the seat size
+     * and other seats by a binary search on the rows and then on the row.
+     */
+    public int seatAt(double x, double y) {
+        if (size() == 0 || width <= 0 || height <= 0) {
+            return -1;
+        }
+        double px = x - tx;
+        double py = y - ty;
+        if (rotation != 0) {
+            double rx = px*cos + py*sin;
+            py = -px*sin + py*cos;
+            px = rx;
+        }
+        double ux = Math.sin(baseTheta);
+        double uy = -Math.cos(baseTheta);
+        if (isGrid()) {
+            double qx = px - gridX;
+            double qy = py - gridY;
+            double column = (qx*ux + qy*uy) / width;
+            double row = (qy*ux - qx*uy) / height;
+            if (column < 0 || row < 0 || column > gridColumns || row > getRows()) {
+                return -1;
+            }
+            return index(Math.min((int) row, getRows() - 1), Math.min((int) column, gridColumns - 1));
+        }
+        buildIndex(ux, uy);
+        double u = px*ux + py*uy;
+        double v = py*ux - px*uy;
+        if (!sorted) {
+            for (int i = 0; i < size(); i++) {
+                if (contains(i, u, v)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int row = lastRowBefore(v);
+        for (int r = Math.max(row - 1, 0); r <= row + 1 && r < getRows(); r++) {
+            int i = lastSeatBefore(r, u);
+            if (i >= 0 && contains(i, u, v)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Seats whose bounding box intersects the area.
+     */
+    public BitSet seatsIn(Bounds area) {
+        BitSet result = new BitSet(size());
+        double theta = getTheta();
+        double wx = width*Math.sin(theta);
+        double wy = -width*Math.cos(theta);
+        double hx = height*Math.cos(theta);
+        double hy = height*Math.sin(theta);
+        double minX = area.minX - Math.max(0, wx) - Math.max(0, hx);
+        double maxX = area.maxX - Math.min(0, wx) - Math.min(0, hx);
+        double minY = area.minY - Math.max(0, wy) - Math.max(0, hy);
+        double maxY = area.maxY - Math.min(0, wy) - Math.min(0, hy);
+        for (int i = 0; i < size(); i++) {
+            double x = getX(i);
+            double y = getY(i);
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    public Shape getShape(int index) {
+        Rectangle rectangle = Rectangle.create(getX(index), getY(index), width, height, getColor(index), getTheta());
+        rectangle.setSelected(isSelected(index));
+        return rectangle;
+    }
+
+    public Seat getSeat(int index) {
+        int row = rowOf(index);
+        return getSeats()[row][index - rowStart[row]];
+    }
+
+    /**
+     * Views are created on first use and shared afterwards.
+     */
+    public Seat[][] getSeats() {
+        if (views == null) {
+            Seat[][] seats = new Seat[getRows()][];
+            for (int r = 0; r < seats.length; r++) {
+                seats[r] = new Seat[getColumns(r)];
+                for (int c = 0; c < seats[r].length; c++) {
+                    seats[r][c] = new Seat(this, rowStart[r] + c);
+                }
+            }
+            views = seats;
+        }
+        return views;
+    }
+
+    /**
+     * Seat origins in the seat frame, they only depend on the base origins so they are computed once.
+     * Searching them needs rows sorted by v and seats sorted by u, otherwise all the seats are tested.
+     */
+    private void buildIndex(double ux, double uy) {
+        if (us != null) {
+            return;
+        }
+        double[] us = new double[size()];
+        double[] vs = new double[size()];
+        boolean sorted = true;
+        for (int r = 0; r < getRows(); r++) {
+            if (getColumns(r) == 0) {
+                sorted = false;
+            }
+            for (int i = rowStart[r]; i < rowStart[r + 1]; i++) {
+                us[i] = xs[i]*ux + ys[i]*uy;
+                vs[i] = ys[i]*ux - xs[i]*uy;
+                if (i > rowStart[r] && us[i] < us[i - 1]) {
+                    sorted = false;
+                }
+            }
+            if (r > 0 && sorted && vs[rowStart[r]] < vs[rowStart[r - 1]]) {
+                sorted = false;
+            }
+        }
+        this.vs = vs;
+        this.sorted = sorted;
+        this.us = us;
+    }
+
+    private boolean contains(int index, double u, double v) {
+        return u >= us[index] && u <= us[index] + width && v >= vs[index] && v <= vs[index] + height;
+    }
+
+    private int lastRowBefore(double v) {
+        int low = 0;
+        int high = getRows() - 1;
+        int row = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (vs[rowStart[middle]] <= v) {
+                row = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return row;
+    }
+
+    private int lastSeatBefore(int row, double u) {
+        int low = rowStart[row];
+        int high = rowStart[row + 1] - 1;
+        int seat = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (us[middle] <= u) {
+                seat = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return seat;
+    }
+
+    private double baseX(int index) {
+        if (xs != null) {
+            return xs[index];
+        }
+        double x = (index / gridColumns) * height;
+        double y = (index % gridColumns) * width;
+        return gridX + (x*gridCos - y*gridSin);
+    }
+
+    private double baseY(int index) {
+        if (ys != null) {
+            return ys[index];
+        }
+        double x = (index / gridColumns) * height;
+        double y = (index % gridColumns) * width;
+        return gridY - (x*gridSin + y*gridCos);
+    }
+
+    private int rowOf(int index) {
+        int low = 0;
+        int high = getRows() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (rowStart[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private int paletteIndex(int[] color) {
+        int key = (color[3] & 0xff) << 24 | (color[0] & 0xff) << 16 | (color[1] & 0xff) << 8 | (color[2] & 0xff);
+        Integer index = paletteIndex.get(key);
+        if (index == null) {
+            index = palette.size();
+            palette.add(color.clone());
+            paletteIndex.put(key, index);
+        }
+        return index;
+    }
+}
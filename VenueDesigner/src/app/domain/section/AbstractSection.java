@@ -53,6 +53,15 @@ abstract class AbstractSection implements Section {
         this.shape = shape;
     }
 
+    /**
+     * Copy of the shape not sharing its color.
+     */
+    Shape copyShape() {
+        Shape copy = shape.clone();
+        copy.setColor(shape.getColor().clone());
+        return copy;
+    }
+
     @Override
     @JsonIgnore
     public boolean isSelected() {
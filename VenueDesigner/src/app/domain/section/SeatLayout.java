@@ -0,0 +1,357 @@
+package app.domain.section;
+
+import app.domain.FlightEvent;
+import app.domain.VitalSpace;
+import app.domain.shape.Point;
+import app.domain.shape.Polygon;
+import app.domain.shape.Rectangle;
+import app.domain.shape.Shape;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Vector;
+
+/**
+ * Seat positions of an irregular section, facing the stage.
+ * Rows are filled with a scanline: the polygon edges crossing a row band give the intervals where a seat fits,
+ * so only the seats that are kept get allocated.
+ */
+public final class SeatLayout {
+    static final double TOLERANCE = 1.01;
+    private static final double EPSILON = 1e-7;
+    private static final FlightEvent.Type SEAT_REFLOW = FlightEvent.type("app.venue.SeatReflow", "Seat Reflow",
+            "Seats of an irregular section laid out again",
+            FlightEvent.field("section", String.class, "Section"),
+            FlightEvent.field("seats", int.class, "Seats"),
+            FlightEvent.field("candidates", int.class, "Candidates Tested",
+                    "Seat positions checked against the section, those of the first computation for a cached layout"),
+            FlightEvent.field("cached", boolean.class, "Cached"));
+
+    private final double theta;
+    private final double[][] xs;
+    private final double[][] ys;
+    private final int candidates;
+
+    private SeatLayout(double theta, double[][] xs, double[][] ys, int candidates) {
+        this.theta = theta;
+        this.xs = xs;
+        this.ys = ys;
+        this.candidates = candidates;
+    }
+
+    double getTheta() {
+        return theta;
+    }
+
+    int getRows() {
+        return xs.length;
+    }
+
+    int getColumns(int row) {
+        return xs[row].length;
+    }
+
+    double getX(int row, int column) {
+        return xs[row][column];
+    }
+
+    double getY(int row, int column) {
+        return ys[row][column];
+    }
+
+    /**
+     * Returns null if the current thread got interrupted, so a stale background computation can stop early.
+     * The section name is only used for the flight recorder event, a null cache computes the layout every time.
+     */
+    static SeatLayout compute(String section, Shape shape, Point stageCenter, VitalSpace vitalSpace,
+                              SeatLayoutCache cache) {
+        FlightEvent event = SEAT_REFLOW.begin();
+        SeatLayoutCache.Key key = new SeatLayoutCache.Key(shape, stageCenter, vitalSpace, TOLERANCE);
+        SeatLayout layout = cache == null ? null : cache.get(key);
+        boolean cached = layout != null;
+        if (layout == null) {
+            layout = fill(shape, stageCenter, vitalSpace);
+            if (layout == null) {
+                return null;
+            }
+            if (cache != null) {
+                cache.put(key, layout);
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.set("section", section);
+            event.set("seats", layout.size());
+            event.set("candidates", layout.candidates);
+            event.set("cached", cached);
+            event.commit();
+        }
+        return layout;
+    }
+
+    int size() {
+        int size = 0;
+        for (double[] row : xs) {
+            size += row.length;
+        }
+        return size;
+    }
+
+    private static SeatLayout fill(Shape shape, Point stageCenter, VitalSpace vitalSpace) {
+        Shape tolerantShape = createTolerantShape(shape, TOLERANCE);
+        Shape box = makeBox(tolerantShape, stageCenter);
+        double alpha = SeatedSection.thetaCalc(box.computeCentroid(), stageCenter);
+        Vector<Point> boxPoints = box.getPoints();
+        double boxWidth = Math.sqrt(Math.pow(boxPoints.elementAt(0).x - boxPoints.elementAt(1).x, 2) +
+                Math.pow(boxPoints.elementAt(0).y - boxPoints.elementAt(1).y, 2));
+        double boxHeight = Math.sqrt(Math.pow(boxPoints.elementAt(2).x - boxPoints.elementAt(1).x, 2) +
+                Math.pow(boxPoints.elementAt(2).y - boxPoints.elementAt(1).y, 2));
+
+        double width = vitalSpace.getWidth();
+        double height = vitalSpace.getHeight();
+        double sin = Math.sin(alpha);
+        double cos = Math.cos(alpha);
+        Point p0 = boxPoints.elementAt(0);
+        Scanline scanline = new Scanline(tolerantShape.getPoints(), p0, alpha, width, height);
+
+        ArrayList<double[]> rowsX = new ArrayList<>();
+        ArrayList<double[]> rowsY = new ArrayList<>();
+        double[] rowX = new double[16];
+        double[] rowY = new double[16];
+        double ivx = p0.x;
+        double ivy = p0.y;
+        double dv = 0;
+        int candidates = 0;
+        while (dv <= 1.3 * boxHeight) {
+            if (Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            scanline.band((ivx - p0.x) * cos + (ivy - p0.y) * sin);
+            int count = 0;
+            double ihx = ivx;
+            double ihy = ivy;
+            double dh = 0;
+            while (dh <= 1.3 * boxWidth) {
+                double u = (ihx - p0.x) * sin - (ihy - p0.y) * cos;
+                int steps;
+                candidates++;
+                if (scanline.fits(u)) {
+                    if (count == rowX.length) {
+                        rowX = Arrays.copyOf(rowX, 2 * count);
+                        rowY = Arrays.copyOf(rowY, 2 * count);
+                    }
+                    rowX[count] = ihx;
+                    rowY[count] = ihy;
+                    count++;
+                    ihx += width * sin;
+                    ihy -= width * cos;
+                    steps = 0;
+                } else {
+                    double next = scanline.next(u);
+                    if (Double.isNaN(next)) {
+                        break;
+                    }
+                    steps = Math.max(1, (int) Math.floor(next - u));
+                }
+                for (int k = 0; k < steps; k++) {
+                    ihx += sin;
+                    ihy -= cos;
+                }
+                dh = Math.sqrt(Math.pow(ivx - ihx, 2) + Math.pow(ivy - ihy, 2));
+            }
+            if (count > 0) {
+                rowsX.add(Arrays.copyOf(rowX, count));
+                rowsY.add(Arrays.copyOf(rowY, count));
+                ivx += height * cos;
+                ivy += height * sin;
+            } else {
+                ivx += cos;
+                ivy += sin;
+            }
+            dv = Math.sqrt(Math.pow(ivx - p0.x, 2) + Math.pow(ivy - p0.y, 2));
+        }
+        return new SeatLayout(alpha, rowsX.toArray(new double[0][]), rowsY.toArray(new double[0][]), candidates);
+    }
+
+    private static Shape makeBox(Shape shape, Point stageCenter) {
+        Point sectionCenter = shape.computeCentroid();
+        double alpha = SeatedSection.thetaCalc(sectionCenter,stageCenter);
+        double dx = stageCenter.x-sectionCenter.x;
+        double dy = stageCenter.y-sectionCenter.y;
+
+        Point perpendicularPoint = new Point(sectionCenter.x-dy,sectionCenter.y+dx);
+        double leftDist=0;
+        double rightDist=0;
+        double topDist=0;
+        double bottomDist=0;
+        for (Point point: shape.getPoints()){
+            double hDist = distancePointLine(point, stageCenter, sectionCenter);
+            double vDist = distancePointLine(point, sectionCenter, perpendicularPoint);
+            leftDist = Math.min(leftDist,hDist);
+            rightDist = Math.max(rightDist,hDist);
+            bottomDist = Math.min(bottomDist,vDist);
+            topDist = Math.max(topDist,vDist);
+        }
+
+        double p1x = -topDist*Math.cos(alpha) + leftDist*Math.sin(alpha) + sectionCenter.x;
+        double p1y = -topDist*Math.sin(alpha) - leftDist*Math.cos(alpha) + sectionCenter.y;
+        double p2x = -topDist*Math.cos(alpha) + rightDist*Math.sin(alpha) + sectionCenter.x;
+        double p2y = -topDist*Math.sin(alpha) - rightDist*Math.cos(alpha) + sectionCenter.y;
+        double p3x = -bottomDist*Math.cos(alpha) + rightDist*Math.sin(alpha) + sectionCenter.x;
+        double p3y = -bottomDist*Math.sin(alpha) - rightDist*Math.cos(alpha) + sectionCenter.y;
+        double p4x = -bottomDist*Math.cos(alpha) + leftDist*Math.sin(alpha) + sectionCenter.x;
+        double p4y = -bottomDist*Math.sin(alpha) - leftDist*Math.cos(alpha) + sectionCenter.y;
+        Vector<Point> points = new Vector<>();
+        points.add(new Point(p1x,p1y));
+        points.add(new Point(p2x,p2y));
+        points.add(new Point(p3x,p3y));
+        points.add(new Point(p4x,p4y));
+        Rectangle box = Rectangle.create(points, new int[4]);
+        return createTolerantShape(box,1.0);
+    }
+
+    private static double distancePointLine(Point p0, Point p1, Point p2){
+        return ((p2.y-p1.y)*p0.x-(p2.x-p1.x)*p0.y+p2.x*p1.y-p2.y*p1.x)/Math.sqrt(Math.pow((p2.y-p1.y),2)+Math.pow((p2.x-p1.x),2));
+    }
+
+    private static Shape createTolerantShape(Shape shape, double scaleFactor){
+        Vector<Point> points = new Vector<>();
+        Point gravityCenter = shape.computeCentroid();
+        for (Point p: shape.getPoints()){
+            double d = Math.sqrt(Math.pow(p.x-gravityCenter.x,2)+Math.pow(p.y-gravityCenter.y,2));
+            double alpha = SeatedSection.thetaCalc(p,gravityCenter);
+            d *= scaleFactor;
+            double px = gravityCenter.x + d*Math.cos(alpha);
+            double py = gravityCenter.y + d*Math.sin(alpha);
+            points.add(new Point(px,py));
+        }
+        return new Polygon(points, new int[4]);
+    }
+
+    /**
+     * Polygon expressed in the seat frame: u along a row, v from one row to the next.
+     * For a given row band, keeps the sorted intervals of u where a seat can start.
+     */
+    private static final class Scanline {
+        private final double[] us;
+        private final double[] vs;
+        private final double width;
+        private final double height;
+        private final double[] blocked;
+        private final double[] starts;
+        private final double[] ends;
+        private int count;
+
+        private Scanline(Vector<Point> points, Point origin, double alpha, double width, double height) {
+            int size = points.size();
+            this.us = new double[size];
+            this.vs = new double[size];
+            double sin = Math.sin(alpha);
+            double cos = Math.cos(alpha);
+            for (int i = 0; i < size; i++) {
+                Point p = points.elementAt(i);
+                us[i] = (p.x - origin.x) * sin - (p.y - origin.y) * cos;
+                vs[i] = (p.x - origin.x) * cos + (p.y - origin.y) * sin;
+            }
+            this.width = width;
+            this.height = height;
+            this.blocked = new double[2 * size];
+            this.starts = new double[size];
+            this.ends = new double[size];
+        }
+
+        private void band(double v) {
+            double v0 = v + EPSILON;
+            double v1 = v + height - EPSILON;
+            int size = us.length;
+            int edges = 0;
+            for (int i = 0; i < size; i++) {
+                int j = (i + 1) % size;
+                double va = vs[i];
+                double vb = vs[j];
+                double low = Math.max(Math.min(va, vb), v0);
+                double high = Math.min(Math.max(va, vb), v1);
+                if (low >= high) {
+                    continue;
+                }
+                double ua;
+                double ub;
+                if (va == vb) {
+                    ua = us[i];
+                    ub = us[j];
+                } else {
+                    ua = us[i] + (us[j] - us[i]) * (low - va) / (vb - va);
+                    ub = us[i] + (us[j] - us[i]) * (high - va) / (vb - va);
+                }
+                double from = Math.min(ua, ub) - width + EPSILON;
+                double to = Math.max(ua, ub) - EPSILON;
+                if (from < to) {
+                    blocked[2 * edges] = from;
+                    blocked[2 * edges + 1] = to;
+                    edges++;
+                }
+            }
+            sortIntervals(edges);
+
+            count = 0;
+            double middle = v + height / 2;
+            double reach = Double.NEGATIVE_INFINITY;
+            for (int k = 0; k < edges; k++) {
+                double start = blocked[2 * k];
+                if (start >= reach && reach != Double.NEGATIVE_INFINITY && inside((reach + start + width) / 2, middle)) {
+                    starts[count] = reach;
+                    ends[count] = start;
+                    count++;
+                }
+                reach = Math.max(reach, blocked[2 * k + 1]);
+            }
+        }
+
+        private boolean fits(double u) {
+            for (int k = 0; k < count; k++) {
+                if (u >= starts[k] && u <= ends[k]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Smallest seat start not below u, or NaN if the rest of the row is blocked.
+         */
+        private double next(double u) {
+            for (int k = 0; k < count; k++) {
+                if (ends[k] >= u) {
+                    return Math.max(starts[k], u);
+                }
+            }
+            return Double.NaN;
+        }
+
+        private boolean inside(double u, double v) {
+            boolean inside = false;
+            int size = us.length;
+            for (int i = 0, j = size - 1; i < size; j = i++) {
+                if ((vs[i] > v) != (vs[j] > v) && u < (us[j] - us[i]) * (v - vs[i]) / (vs[j] - vs[i]) + us[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        private void sortIntervals(int edges) {
+            for (int i = 1; i < edges; i++) {
+                double start = blocked[2 * i];
+                double end = blocked[2 * i + 1];
+                int j = i - 1;
+                while (j >= 0 && blocked[2 * j] > start) {
+                    blocked[2 * (j + 1)] = blocked[2 * j];
+                    blocked[2 * (j + 1) + 1] = blocked[2 * j + 1];
+                    j--;
+                }
+                blocked[2 * (j + 1)] = start;
+                blocked[2 * (j + 1) + 1] = end;
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package app.domain.section;
+
+import app.domain.VitalSpace;
+import app.domain.shape.Point;
+import app.domain.shape.Shape;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * Least recently used layouts, keyed on everything the fill depends on.
+ * Undo, redo, reload or moving the stage back to a previous position give back identical layouts.
+ */
+public final class SeatLayoutCache {
+    private final LinkedHashMap<Key, SeatLayout> layouts;
+    private long hits;
+    private long misses;
+
+    public SeatLayoutCache(int capacity) {
+        this.layouts = new LinkedHashMap<Key, SeatLayout>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SeatLayout> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized SeatLayout get(Key key) {
+        SeatLayout layout = layouts.get(key);
+        if (layout == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return layout;
+    }
+
+    synchronized void put(Key key, SeatLayout layout) {
+        layouts.put(key, layout);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return layouts.size();
+    }
+
+    public synchronized void clear() {
+        layouts.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SeatLayoutCache{size=" + layouts.size() + ", hits=" + hits + ", misses=" + misses + "}";
+    }
+
+    static final class Key {
+        private final double[] values;
+        private final int hash;
+
+        Key(Shape shape, Point stageCenter, VitalSpace vitalSpace, double tolerance) {
+            Vector<Point> points = shape.getPoints();
+            values = new double[2 * points.size() + 5];
+            for (int i = 0; i < points.size(); i++) {
+                values[2 * i] = points.get(i).x;
+                values[2 * i + 1] = points.get(i).y;
+            }
+            int i = 2 * points.size();
+            values[i] = stageCenter.x;
+            values[i + 1] = stageCenter.y;
+            values[i + 2] = vitalSpace.getWidth();
+            values[i + 3] = vitalSpace.getHeight();
+            values[i + 4] = tolerance;
+            hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return hash == key.hash && Arrays.equals(values, key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package app.domain.section;
+
+import app.domain.Profiler;
+import app.domain.Stage;
+import app.domain.VitalSpace;
+import app.domain.shape.Point;
+import app.domain.shape.Shape;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Computes seat layouts in the background while a section or the stage is being edited.
+ * Must be called from the UI thread, finished layouts are published on it through the given executor.
+ * A layout is dropped if the section or the stage changed since it was requested.
+ * Moving the stage reflows every auto-seated section, those go as one batch published at once, so a paint never
+ * shows some sections fitted to the new stage position and others to the old one.
+ */
+public final class SeatReflowScheduler {
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "seat-reflow");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final IdentityHashMap<SeatedSection, Request> pending = new IdentityHashMap<>();
+    private Batch batch;
+    private final Executor publisher;
+    private final long debounceMillis;
+    private final SeatLayoutCache cache;
+    private final Profiler profiler;
+
+    /**
+     * Layout computations are timed as "seatLayout".
+     */
+    public SeatReflowScheduler(Executor publisher, long debounceMillis, SeatLayoutCache cache, Profiler profiler) {
+        this.publisher = Objects.requireNonNull(publisher);
+        this.debounceMillis = debounceMillis;
+        this.cache = Objects.requireNonNull(cache);
+        this.profiler = Objects.requireNonNull(profiler);
+    }
+
+    /**
+     * Layouts of the sections for the stage center, computed in parallel before returning.
+     * The sections are only read, they must not be edited meanwhile.
+     */
+    public List<SeatLayout> layoutAll(List<SeatedSection> sections, Point stageCenter) {
+        return sections.parallelStream()
+                .map(section -> profiler.measure("seatLayout", () -> section.computeLayout(stageCenter, cache)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Debounced request, a new request for the same section replaces this one.
+     */
+    public void schedule(SeatedSection section, Stage stage, Runnable onCommit) {
+        request(section, stage, debounceMillis, onCommit);
+    }
+
+    public void submit(SeatedSection section, Stage stage, Runnable onCommit) {
+        request(section, stage, 0, onCommit);
+    }
+
+    /**
+     * Debounced batch for the sections, replacing the pending batch and the pending requests of these sections.
+     * The layouts are computed in parallel and published together, onCommit runs once for all of them.
+     */
+    public void scheduleAll(List<SeatedSection> sections, Stage stage, Runnable onCommit) {
+        requestAll(sections, stage, debounceMillis, onCommit);
+    }
+
+    public void submitAll(List<SeatedSection> sections, Stage stage, Runnable onCommit) {
+        requestAll(sections, stage, 0, onCommit);
+    }
+
+    public void cancelAll() {
+        pending.values().forEach(request -> request.future.cancel(true));
+        pending.clear();
+        if (batch != null) {
+            batch.cancel();
+            batch = null;
+        }
+    }
+
+    public boolean isPending() {
+        return !pending.isEmpty() || batch != null;
+    }
+
+    private void request(SeatedSection section, Stage stage, long delay, Runnable onCommit) {
+        Objects.requireNonNull(onCommit);
+        cancel(section);
+        Request request = new Request(section, stage.getShape());
+        Point stageCenter = stage.getShape().computeCentroid();
+        pending.put(section, request);
+        request.future = executor.schedule(() -> {
+            SeatLayout layout = compute(request, stageCenter);
+            if (layout == null) {
+                return;
+            }
+            publisher.execute(() -> publish(request, layout, onCommit));
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void requestAll(List<SeatedSection> sections, Stage stage, long delay, Runnable onCommit) {
+        Objects.requireNonNull(onCommit);
+        if (batch != null) {
+            batch.cancel();
+        }
+        List<Request> requests = new ArrayList<>(sections.size());
+        for (SeatedSection section : sections) {
+            cancel(section);
+            requests.add(new Request(section, stage.getShape()));
+        }
+        Point stageCenter = stage.getShape().computeCentroid();
+        Batch batch = new Batch(requests, stage.getShape());
+        this.batch = batch;
+        batch.future = executor.schedule(() -> {
+            List<SeatLayout> layouts = requests.parallelStream()
+                    .map(request -> batch.cancelled ? null : compute(request, stageCenter))
+                    .collect(Collectors.toList());
+            if (batch.cancelled || layouts.contains(null)) {
+                return;
+            }
+            publisher.execute(() -> publishAll(batch, layouts, onCommit));
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancel(SeatedSection section) {
+        Request previous = pending.remove(section);
+        if (previous != null) {
+            previous.future.cancel(true);
+        }
+    }
+
+    private SeatLayout compute(Request request, Point stageCenter) {
+        return profiler.measure("seatLayout",
+                () -> SeatLayout.compute(request.name, request.copy, stageCenter, request.vitalSpace, cache));
+    }
+
+    private void publish(Request request, SeatLayout layout, Runnable onCommit) {
+        if (pending.get(request.section) != request) {
+            return;
+        }
+        pending.remove(request.section);
+        if (!request.isCurrent()) {
+            return;
+        }
+        request.section.applyLayout(layout);
+        onCommit.run();
+    }
+
+    /**
+     * Sections edited since the batch was requested are left to their own request.
+     */
+    private void publishAll(Batch batch, List<SeatLayout> layouts, Runnable onCommit) {
+        if (this.batch != batch) {
+            return;
+        }
+        this.batch = null;
+        if (batch.stageShape.getVersion() != batch.stageVersion) {
+            return;
+        }
+        for (int i = 0; i < layouts.size(); i++) {
+            Request request = batch.requests.get(i);
+            if (request.isCurrent()) {
+                request.section.applyLayout(layouts.get(i));
+            }
+        }
+        onCommit.run();
+    }
+
+    private static final class Request {
+        private final SeatedSection section;
+        private final Shape shape;
+        private final int version;
+        private final Shape stageShape;
+        private final int stageVersion;
+        private final String name;
+        private final Shape copy;
+        private final VitalSpace vitalSpace;
+        private Future<?> future;
+
+        private Request(SeatedSection section, Shape stageShape) {
+            this.section = section;
+            this.shape = section.getShape();
+            this.version = shape.getVersion();
+            this.stageShape = stageShape;
+            this.stageVersion = stageShape.getVersion();
+            this.name = section.getName();
+            this.copy = shape.clone();
+            this.vitalSpace = section.getVitalSpace().clone();
+        }
+
+        private boolean isCurrent() {
+            return section.getShape() == shape && shape.getVersion() == version
+                    && stageShape.getVersion() == stageVersion;
+        }
+    }
+
+    private static final class Batch {
+        private final List<Request> requests;
+        private final Shape stageShape;
+        private final int stageVersion;
+        private volatile boolean cancelled;
+        private Future<?> future;
+
+        private Batch(List<Request> requests, Shape stageShape) {
+            this.requests = requests;
+            this.stageShape = stageShape;
+            this.stageVersion = stageShape.getVersion();
+        }
+
+        private void cancel() {
+            cancelled = true;
+            future.cancel(true);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package app.domain.section;
 
-import app.domain.collider.Collider;
 import app.domain.Drawable;
 import app.domain.seat.Seat;
 import app.domain.Stage;
@@ -10,6 +9,7 @@ import app.domain.shape.Shape;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
+import java.util.Optional;
 import java.util.function.Consumer;
 
 @JsonTypeInfo(
@@ -27,5 +27,11 @@ public interface Section extends Drawable, Selection {
     Shape getShape();
     void setShape(Shape shape);
     void forEachSeats(Consumer<Seat> consumer);
-    void autoSetSeats(Stage stage, Collider collider);
+    Optional<Seat> seatAt(double x, double y);
+    void autoSetSeats(Stage stage, SeatLayoutCache cache);
+
+    /**
+     * Deep copy, it can be read on another thread while this section is edited.
+     */
+    Section copy();
 }
@@ -1,6 +1,5 @@
 package app.domain.section;
 
-import app.domain.collider.Collider;
 import app.domain.seat.Seat;
 import app.domain.Stage;
 import app.domain.selection.SelectionVisitor;
@@ -11,6 +10,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.Optional;
 import java.util.function.Consumer;
 
 public final class StandingSection extends AbstractSection {
@@ -58,13 +58,25 @@ public final class StandingSection extends AbstractSection {
     @Override
     public void forEachSeats(Consumer<Seat> consumer) {}
 
+    @Override
+    public Optional<Seat> seatAt(double x, double y) {
+        return Optional.empty();
+    }
+
     @Override
     public void rotate(double thetaRadian){
         getShape().rotate(thetaRadian, getShape().computeCentroid());
     }
 
     @Override
-    public void autoSetSeats(Stage stage, Collider collider){}
+    public void autoSetSeats(Stage stage, SeatLayoutCache cache){}
+
+    @Override
+    public StandingSection copy() {
+        StandingSection copy = new StandingSection(getName(), 0, copyShape(), max, price);
+        copy.setElevation(getElevation());
+        return copy;
+    }
 
     @Override
     @JsonIgnore
@@ -34,13 +34,11 @@ public final class SelectionHolder {
             backup.accept(new SelectionAdapter() {
                 @Override
                 public void visit(SeatedSection section) {
-                    section.forEachSeats(seat -> {
-                        if (!selection[0] && selectionCheck(seat.getShape(), x, y)) {
-                            current = seat;
-                            current.setSelected(true);
-                            preSelection.setSelected(true);
-                            selection[0] = true;
-                        }
+                    section.seatAt(x, y).ifPresent(seat -> {
+                        current = seat;
+                        current.setSelected(true);
+                        preSelection.setSelected(true);
+                        selection[0] = true;
                     });
                     if (!selection[0] && !section.isRegular) {
                         PointSelection pointSelection = pointSelection(section.getShape());
@@ -53,16 +51,12 @@ public final class SelectionHolder {
 
                 @Override
                 public void visit(Seat seat) {
-                    Seat[] seats = preSelection.getSeats()[seat.getRow()];
-                    for (Seat s : seats) {
-                        if (selectionCheck(s.getShape(), x, y)) {
-                            current = new SeatSection(seats);
-                            current.setSelected(true);
-                            preSelection.setSelected(true);
-                            selection[0] = true;
-                            return;
-                        }
-                    }
+                    preSelection.seatAt(x, y).filter(s -> s.getRow() == seat.getRow()).ifPresent(s -> {
+                        current = new SeatSection(preSelection.getSeats()[seat.getRow()]);
+                        current.setSelected(true);
+                        preSelection.setSelected(true);
+                        selection[0] = true;
+                    });
                 }
 
                 @Override
@@ -97,7 +91,7 @@ public final class SelectionHolder {
             }
         }
 
-        for (Section section : room.getSections()) {
+        for (Section section : room.sectionsAt(x, y)) {
             if (selectionCheck(section.getShape(), x, y)) {
                 current = section;
                 current.setSelected(true);
@@ -18,6 +18,13 @@ abstract class AbstractShape implements Shape {
     private final Vector<Point> points;
     private int[] color;
     private boolean selected;
+    private int version;
+    private int cachedVersion = -1;
+    private double centroidX;
+    private double centroidY;
+    private double signedArea;
+    private Bounds bounds;
+    private double[] normals;
 
     AbstractShape(Vector<Point> points, int[] color) {
         this.points = Objects.requireNonNull(points);
@@ -61,47 +68,92 @@ abstract class AbstractShape implements Shape {
         this.color = Objects.requireNonNull(color);
     }
 
-    public double area(){ // Polygon Area Calculation
-        double area = 0;
-        for(Point p: points){
-            if(p == points.lastElement()){
-                area += 0.5*(p.x)*(points.firstElement().y)-(points.firstElement().x)*(p.y);
-            } else{
-                area += 0.5*(p.x) * (points.get(points.indexOf(p)+1).y) - (points.get(points.indexOf(p)+1).y)*(p.y);
-            }
-        }
-        return area;
+    public double area() {
+        return Math.abs(getSignedArea());
     }
 
     @Override
     public Point computeCentroid() {
-        double cx =0.0;
-        double cy =0.0;
-        double signedArea = 0.0;
-        double x0; // Current vertex X
-        double y0; // Current vertex Y
-        double x1; // Next vertex X
-        double y1; // Next vertex Y
-        double a;  // Partial signed area
-
-        // For all vertices
-        for (int i=0; i<points.size(); ++i)
-        {
-            x0 = points.elementAt(i).x;
-            y0 = points.elementAt(i).y;
-            x1 = points.elementAt((i+1)%points.size()).x;
-            y1 = points.elementAt((i+1)%points.size()).y;
-            a = x0*y1 - x1*y0;
-            signedArea += a;
-            cx += (x0 + x1)*a;
-            cy += (y0 + y1)*a;
-        }
+        refresh();
+        return new Point(centroidX, centroidY);
+    }
+
+    @Override
+    @JsonIgnore
+    public double getSignedArea() {
+        refresh();
+        return signedArea;
+    }
 
-        signedArea *= 0.5;
-        cx /= (6.0*signedArea);
-        cy /= (6.0*signedArea);
+    @Override
+    @JsonIgnore
+    public Bounds getBounds() {
+        refresh();
+        return bounds;
+    }
+
+    @Override
+    @JsonIgnore
+    public double[] getEdgeNormals() {
+        refresh();
+        return normals;
+    }
+
+    @Override
+    @JsonIgnore
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public void invalidate() {
+        version++;
+    }
+
+    private void refresh() {
+        if (cachedVersion == version) {
+            return;
+        }
+        int size = points.size();
+        double cx = 0.0;
+        double cy = 0.0;
+        double area = 0.0;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            Point p0 = points.elementAt(i);
+            Point p1 = points.elementAt((i + 1) % size);
+            double a = p0.x * p1.y - p1.x * p0.y;
+            area += a;
+            cx += (p0.x + p1.x) * a;
+            cy += (p0.y + p1.y) * a;
+            minX = Math.min(minX, p0.x);
+            minY = Math.min(minY, p0.y);
+            maxX = Math.max(maxX, p0.x);
+            maxY = Math.max(maxY, p0.y);
+        }
+        area *= 0.5;
+
+        double orientation = area >= 0 ? 1 : -1;
+        double[] normals = new double[2 * size];
+        for (int i = 0; i < size; i++) {
+            Point p0 = points.elementAt(i);
+            Point p1 = points.elementAt((i + 1) % size);
+            double length = Math.sqrt((p1.x - p0.x) * (p1.x - p0.x) + (p1.y - p0.y) * (p1.y - p0.y));
+            if (length > 0) {
+                normals[2 * i] = orientation * (p1.y - p0.y) / length;
+                normals[2 * i + 1] = orientation * (p0.x - p1.x) / length;
+            }
+        }
 
-        return new Point(cx,cy);
+        this.centroidX = cx / (6.0 * area);
+        this.centroidY = cy / (6.0 * area);
+        this.signedArea = area;
+        this.bounds = new Bounds(minX, minY, maxX, maxY);
+        this.normals = normals;
+        this.cachedVersion = version;
     }
 
     @Override
@@ -109,6 +161,7 @@ abstract class AbstractShape implements Shape {
         for (Point p : points) {
             p.offset(x, y);
         }
+        invalidate();
     }
 
     @Override
@@ -122,6 +175,7 @@ abstract class AbstractShape implements Shape {
             double py =  dx*Math.sin(thetaRadian)+dy*Math.cos(thetaRadian)+ gy;
             p.set(px,py);
         }
+        invalidate();
     }
 
     @Override
@@ -0,0 +1,64 @@
+package app.domain.shape;
+
+public final class Bounds {
+    public final double minX;
+    public final double minY;
+    public final double maxX;
+    public final double maxY;
+
+    public Bounds(double minX, double minY, double maxX, double maxY) {
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    public double getWidth() {
+        return maxX - minX;
+    }
+
+    public double getHeight() {
+        return maxY - minY;
+    }
+
+    public boolean contains(double x, double y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    public boolean contains(Bounds other) {
+        return other.minX >= minX && other.maxX <= maxX && other.minY >= minY && other.maxY <= maxY;
+    }
+
+    /**
+     * Distance from the point to the box, zero inside it.
+     */
+    public double distance(double x, double y) {
+        double dx = Math.max(0, Math.max(minX - x, x - maxX));
+        double dy = Math.max(0, Math.max(minY - y, y - maxY));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Touching boxes are not considered as overlapping.
+     */
+    public boolean overlaps(Bounds other) {
+        return minX < other.maxX && other.minX < maxX && minY < other.maxY && other.minY < maxY;
+    }
+
+    public boolean intersects(Bounds other) {
+        return minX <= other.maxX && other.minX <= maxX && minY <= other.maxY && other.minY <= maxY;
+    }
+
+    public Bounds grow(double margin) {
+        return new Bounds(minX - margin, minY - margin, maxX + margin, maxY + margin);
+    }
+
+    public Bounds union(Bounds other) {
+        return new Bounds(
+                Math.min(minX, other.minX),
+                Math.min(minY, other.minY),
+                Math.max(maxX, other.maxX),
+                Math.max(maxY, other.maxY)
+        );
+    }
+}
@@ -1,12 +1,11 @@
 package app.domain.shape;
 
-import app.domain.Stage;
-import app.domain.collider.Collider;
 import app.domain.section.SeatedSection;
 import app.domain.selection.Selection;
 import app.domain.selection.SelectionVisitor;
 
 import java.util.Objects;
+import java.util.Optional;
 
 public final class PointSelection implements Selection {
     private final Shape shape;
@@ -29,6 +28,7 @@ public final class PointSelection implements Selection {
     @Override
     public void move(double x, double y) {
         point.set(x, y);
+        shape.invalidate();
     }
 
     @Override
@@ -53,10 +53,8 @@ public final class PointSelection implements Selection {
         this.seatedSection = seatedSection;
     }
 
-    public void recalculate(Stage stage, Collider collider) {
-        if (seatedSection != null) {
-            seatedSection.autoSetSeats(stage, collider);
-        }
+    public Optional<SeatedSection> getSeatedSection() {
+        return Optional.ofNullable(seatedSection);
     }
 
     public Point getPoint(){
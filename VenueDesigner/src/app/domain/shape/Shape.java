@@ -21,5 +21,10 @@ public interface Shape extends Drawable {
     void move(double x, double y);
     void rotate(double thetaRadian, Point rotationCenter);
     Point computeCentroid();
+    double getSignedArea();
+    Bounds getBounds();
+    double[] getEdgeNormals();
+    int getVersion();
+    void invalidate();
     Shape clone();
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package app.gui;
+
+import app.domain.Controller;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Draws the visible part of the room on a render thread, the panel only copies the last completed frame.
+ * Frames are drawn from a copy of the room into a back buffer swapped with the shown one once complete.
+ * At most one frame is in progress, a newer request replaces the waiting one.
+ * Must be called from the UI thread.
+ */
+final class BackgroundRenderer {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "render");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final JComponent component;
+    private final Controller controller;
+    private final GUIPainter painter;
+    private final RoomSnapshots snapshots = new RoomSnapshots();
+    private BufferedImage front;
+    private BufferedImage back;
+    private Job shown;
+    private Job rendering;
+    private Job pending;
+    private long rendered;
+    private long dropped;
+
+    BackgroundRenderer(JComponent component, Controller controller) {
+        this.component = Objects.requireNonNull(component);
+        this.controller = Objects.requireNonNull(controller);
+        this.painter = new GUIPainter(controller);
+    }
+
+    /**
+     * Copies the last frame and asks for a new one if the room, the view or the visible area changed.
+     */
+    void paint(Graphics2D g, Rectangle area) {
+        if (area.isEmpty()) {
+            return;
+        }
+        Job job = new Job(Scene.of(controller, snapshots.take(controller.getRoom())), area, component.getFont());
+        if (!job.sameAs(pending != null ? pending : rendering != null ? rendering : shown)) {
+            request(job);
+        }
+        if (front != null) {
+            g.drawImage(front, shown.area.x, shown.area.y, null);
+        }
+    }
+
+    GUIPainter getPainter() {
+        return painter;
+    }
+
+    long getRenderedCount() {
+        return rendered;
+    }
+
+    /**
+     * Requests replaced before their frame was started.
+     */
+    long getDroppedCount() {
+        return dropped;
+    }
+
+    private void request(Job job) {
+        if (rendering == null) {
+            start(job);
+            return;
+        }
+        if (pending != null) {
+            dropped++;
+        }
+        pending = job;
+    }
+
+    private void start(Job job) {
+        rendering = job;
+        BufferedImage target = back;
+        executor.execute(() -> {
+            BufferedImage image = render(target, job);
+            SwingUtilities.invokeLater(() -> done(job, image));
+        });
+    }
+
+    /**
+     * Runs on the render thread, the painter and the target image are only used there.
+     */
+    private BufferedImage render(BufferedImage image, Job job) {
+        Rectangle area = job.area;
+        if (image == null || image.getWidth() != area.width || image.getHeight() != area.height) {
+            image = new BufferedImage(area.width, area.height, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D g = image.createGraphics();
+        g.setColor(DrawingPanel.BACKGROUND);
+        g.fillRect(0, 0, area.width, area.height);
+        g.setFont(job.font);
+        g.translate(-area.x, -area.y);
+        g.clipRect(area.x, area.y, area.width, area.height);
+        painter.draw(g, job.scene);
+        g.dispose();
+        return image;
+    }
+
+    private void done(Job job, BufferedImage image) {
+        back = front;
+        front = image;
+        shown = job;
+        rendering = null;
+        rendered++;
+        if (pending != null) {
+            Job next = pending;
+            pending = null;
+            start(next);
+        }
+        component.repaint();
+    }
+
+    private static final class Job {
+        private final Scene scene;
+        private final Rectangle area;
+        private final Font font;
+
+        private Job(Scene scene, Rectangle area, Font font) {
+            this.scene = scene;
+            this.area = new Rectangle(area);
+            this.font = font;
+        }
+
+        private boolean sameAs(Job job) {
+            return job != null && scene.sameAs(job.scene) && area.equals(job.area);
+        }
+    }
+}
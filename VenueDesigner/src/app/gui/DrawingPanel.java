@@ -6,26 +6,91 @@ import javax.swing.*;
 
 import app.domain.UIPanel;
 
+/**
+ * The preferred size follows the room, the offset and the scale, it is only updated when they change
+ * so painting never triggers a layout of the scroll pane.
+ */
 final class DrawingPanel extends JPanel implements UIPanel {
+    static final Color BACKGROUND = Color.DARK_GRAY.darker().darker();
+
     private Dimension size;
     private final GUIPainter painter;
+    private BackgroundRenderer renderer;
+    private ProfilerOverlay overlay;
+    private long layouts;
 
     DrawingPanel(GUIPainter painter) {
         this.painter = Objects.requireNonNull(painter);
-        size=new Dimension(2000,2000);
-        revalidate();
+        size = painter.getPreferredSize();
+    }
+
+    /**
+     * Paints the frames drawn by the renderer instead of drawing on the UI thread, null to draw directly.
+     */
+    void setRenderer(BackgroundRenderer renderer) {
+        this.renderer = renderer;
+        repaint();
+    }
+
+    /**
+     * Drawn over the room, null to hide it.
+     */
+    void setOverlay(ProfilerOverlay overlay) {
+        this.overlay = overlay;
+        repaint();
+    }
+
+    @Override
+    public void viewChanged() {
+        updatePreferredSize();
+        repaint();
     }
 
-    public void setPreferredSize(int x, int y){
-        size=new Dimension(x,y);
+    /**
+     * Revalidates the scroll pane only if the size actually changed.
+     */
+    void updatePreferredSize() {
+        Dimension preferred = painter.getPreferredSize();
+        if (!preferred.equals(size)) {
+            size = preferred;
+            revalidate();
+        }
     }
+
     public Dimension getPreferredSize() { return size;}
 
+    @Override
+    public void doLayout() {
+        layouts++;
+        super.doLayout();
+    }
+
+    long getLayoutCount() {
+        return layouts;
+    }
+
     public void paintComponent(Graphics g) {
+        if (renderer == null) {
+            paintNow(g);
+        } else {
+            g.clearRect(0, 0, getWidth(), getHeight());
+            g.setColor(BACKGROUND);
+            g.fillRect(0,0,getWidth(),getHeight());
+            renderer.paint((Graphics2D) g, getVisibleRect());
+            painter.drawPreview((Graphics2D) g);
+        }
+        if (overlay != null) {
+            overlay.paint((Graphics2D) g, getVisibleRect());
+        }
+    }
+
+    /**
+     * Draws on the calling thread even with a renderer, such as for an image export.
+     */
+    void paintNow(Graphics g) {
         g.clearRect(0, 0, getWidth(), getHeight());
-        g.setColor(Color.DARK_GRAY.darker().darker());
+        g.setColor(BACKGROUND);
         g.fillRect(0,0,getWidth(),getHeight());
-        painter.draw((Graphics2D) g, this);
-        revalidate();
+        painter.draw((Graphics2D) g);
     }
 }
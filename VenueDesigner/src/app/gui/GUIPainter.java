@@ -1,11 +1,16 @@
 package app.gui;
 
 import app.domain.Controller;
+import app.domain.FlightEvent;
 import app.domain.Room;
 import app.domain.seat.Seat;
+import app.domain.seat.SeatTable;
 import app.domain.Stage;
 import app.domain.section.SeatedSection;
+import app.domain.section.Section;
 import app.domain.section.StandingSection;
+import app.domain.selection.SelectionAdapter;
+import app.domain.shape.Bounds;
 import app.domain.shape.Painter;
 import app.domain.shape.Point;
 import app.domain.shape.Polygon;
@@ -13,47 +18,146 @@ import app.domain.shape.Rectangle;
 import app.domain.shape.Shape;
 
 import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.BitSet;
 import java.util.Objects;
-import java.util.Vector;
 
 final class GUIPainter implements Painter<Graphics2D> {
+    private static final int CLIP_MARGIN = 4;
+    private static final int MAX_GRID_TILE = 1024;
+    private static final Color TRANSPARENT = new Color(0,0,0,0);
+    private static final BasicStroke THIN = new BasicStroke(0);
+    private static final FlightEvent.Type PAINT = FlightEvent.type("app.venue.Paint", "Paint",
+            "Room drawn, on the UI thread or on the render thread",
+            FlightEvent.field("scale", double.class, "Scale"),
+            FlightEvent.field("sections", int.class, "Sections", "Sections drawn or composited from their layer"),
+            FlightEvent.field("clipped", boolean.class, "Clipped", "Only part of the room was visible"));
+
     private final Controller controller;
+    private final SectionLayers layers = new SectionLayers();
+    private final LabelRenderer labels = new LabelRenderer();
+    private final SeatBatch batch = new SeatBatch();
+    private final AffineTransform view = new AffineTransform();
+    private final Path2D.Double outline = new Path2D.Double();
+    private final LevelOfDetail levelOfDetail = LevelOfDetail.DEFAULT;
+    private Scene scene;
+    private Bounds visible;
+    private AffineTransform base;
+    private BufferedImage gridTile;
+    private double gridCell;
 
     GUIPainter(Controller controller) {
         this.controller = Objects.requireNonNull(controller);
     }
 
-    void draw(Graphics2D g, DrawingPanel drawingPanel) {
+    SectionLayers getLayers() {
+        return layers;
+    }
+
+    LabelRenderer getLabels() {
+        return labels;
+    }
+
+    /**
+     * Size of the room drawn with the current offset and scale, with the offset kept as a margin on the far sides.
+     */
+    Dimension getPreferredSize() {
         Point limits = GUIUtils.getTransformedPoint(controller.getRoom().getShape().getPoints().elementAt(2)
                 ,controller.getOffset(),controller.getScale());
-        drawingPanel.setPreferredSize((int)Math.round(limits.x+controller.getOffset().x), (int)Math.round(limits.y+controller.getOffset().y));
-        controller.getRoom().accept(g, this);
-        controller.getCurrent().ifPresent(s -> s.accept(g, this));
+        return new Dimension((int)Math.round(limits.x+controller.getOffset().x), (int)Math.round(limits.y+controller.getOffset().y));
+    }
+
+    void draw(Graphics2D g) {
+        draw(g, Scene.of(controller, controller.getRoom()));
+        drawPreview(g);
     }
 
+    /**
+     * Only reads the profiler from the controller, so it may run on another thread than the one editing the room
+     * as long as the scene room is not edited and this painter is only used there.
+     */
+    void draw(Graphics2D g, Scene scene) {
+        this.scene = scene;
+        controller.getProfiler().time("paint", () -> scene.room.accept(g, this));
+    }
+
+    /**
+     * The shape being built, drawn over the room.
+     */
+    void drawPreview(Graphics2D g) {
+        controller.getCurrent().ifPresent(s -> {
+            AffineTransform transform = g.getTransform();
+            g.translate(controller.getOffset().x, controller.getOffset().y);
+            g.scale(controller.getScale(), controller.getScale());
+            s.accept(g, this);
+            g.setTransform(transform);
+        });
+    }
+
+    /**
+     * Shapes are drawn in room coordinates through the view transform, only texts are drawn in pixels.
+     */
     @Override
     public void draw(Graphics2D g, Room room) {
+        FlightEvent event = PAINT.begin();
+        int drawn = 0;
+        view.setToTranslation(scene.offset.x, scene.offset.y);
+        view.scale(scene.scale, scene.scale);
+        visible = visibleBounds(g);
+        base = g.getTransform();
+        g.transform(view);
         room.getShape().accept(g, this);
         drawGrid(g);
-        room.getStage().ifPresent(stage -> draw(g, stage));
-        room.getSections().forEach(section -> section.accept(g, this));
+        room.getStage().filter(stage -> isVisible(stage.getShape().getBounds())).ifPresent(stage -> draw(g, stage));
+        for (Section section : room.getSections()) {
+            Bounds bounds = section.getShape().getBounds().grow(labelMargin(section));
+            if (!isVisible(bounds)) {
+                continue;
+            }
+            drawn++;
+            g.setTransform(base);
+            boolean layered = layers.paint(g, section, screenArea(bounds), scene.scale, scene.offset, this::drawLayer);
+            g.transform(view);
+            if (!layered) {
+                section.accept(g, this);
+            }
+        }
+        g.setTransform(base);
+        layers.retain(room.getSections());
+        event.end();
+        if (event.shouldCommit()) {
+            event.set("scale", scene.scale);
+            event.set("sections", drawn);
+            event.set("clipped", visible != null);
+            event.commit();
+        }
     }
 
     @Override
     public void draw(Graphics2D g, SeatedSection seatedSection) {
         seatedSection.getShape().accept(g, this);
-        for (Seat[] seats : seatedSection.getSeats()) {
-            for (Seat seat : seats) {
-                if (!seat.isSelected()) {
-                    draw(g, seat);
-                } else {
-                    drawShapeColor(g, seat.getShape(), Color.GREEN, Color.GREEN);
-                }
+        SeatTable table = seatedSection.getSeatTable();
+        LevelOfDetail.Detail detail = levelOfDetail.of(scene.scale * Math.min(table.getWidth(), table.getHeight()));
+        if (detail == LevelOfDetail.Detail.OUTLINE) {
+            drawFinalPerimeter(g, seatedSection.getShape());
+            drawSeatCount(g, seatedSection.getShape(), table.size());
+            return;
+        }
+        BitSet shown = visible == null ? null : table.seatsIn(visible.grow(labelMargin(seatedSection)));
+        batch.clear();
+        for (int i = 0; i < table.size(); i++) {
+            if (shown == null || shown.get(i)) {
+                batch.add(table, i, detail == LevelOfDetail.Detail.FULL);
             }
         }
+        batch.paint(g);
         if(seatedSection.getShape().isSelected()){ drawFinalPerimeter(g,seatedSection.getShape());}
-        numberSeats(g, seatedSection);
+        if (detail == LevelOfDetail.Detail.FULL) {
+            numberSeats(g, seatedSection, shown);
+        }
 
     }
 
@@ -87,45 +191,33 @@ final class GUIPainter implements Painter<Graphics2D> {
 
     @Override
     public void draw(Graphics2D g, Rectangle.Builder rectangle) {
-        Coordinates coordinates = GUIUtils.getCoordinates(rectangle.getPoints(), controller.getOffset(), controller.getScale());
-
-        g.setStroke(new BasicStroke(2));
+        g.setStroke(new BasicStroke((float) (2 / controller.getScale())));
         g.setColor(Color.lightGray);
-        Point last = coordinates.points.lastElement();
-
-        double startX = last.x;
-        double startY = last.y;
-        Point cursor = GUIUtils.getTransformedPoint(controller.getCursor(), controller.getOffset(), controller.getScale());
-        double endX = cursor.x - last.x;
-        double endY = cursor.y - last.y;
-
-        if (endX < 0) {
-            startX = cursor.x;
-            endX = last.x - cursor.x;
-        }
-
-        if (endY < 0) {
-            startY = cursor.y;
-            endY = last.y - cursor.y;
-        }
-
-        g.drawRect((int)Math.round(startX), (int)Math.round(startY), (int)Math.round(endX), (int)Math.round(endY));
+        Point last = rectangle.getPoints().lastElement();
+        Point cursor = controller.getCursor();
+        g.draw(new Rectangle2D.Double(
+                Math.min(last.x, cursor.x), Math.min(last.y, cursor.y),
+                Math.abs(cursor.x - last.x), Math.abs(cursor.y - last.y)));
     }
 
     @Override
     public void draw(Graphics2D g, Polygon.Builder polygon) {
-        Coordinates coordinates = GUIUtils.getCoordinates(polygon.getPoints(), controller.getOffset(), controller.getScale());
-
-        g.setStroke(new BasicStroke(2));
+        g.setStroke(new BasicStroke((float) (2 / controller.getScale())));
         g.setColor(Color.lightGray);
-        g.drawPolyline(coordinates.xCoords, coordinates.yCoords, coordinates.points.size());
-        Point last = coordinates.points.lastElement();
-        Point cursor = GUIUtils.getTransformedPoint(controller.getCursor(),controller.getOffset(), controller.getScale());
-        g.drawLine((int)Math.round(last.x), (int)Math.round(last.y), (int)Math.round(cursor.x), (int)Math.round(cursor.y));
+        Path2D.Double path = new Path2D.Double();
+        for (Point p : polygon.getPoints()) {
+            if (path.getCurrentPoint() == null) {
+                path.moveTo(p.x, p.y);
+            } else {
+                path.lineTo(p.x, p.y);
+            }
+        }
+        path.lineTo(controller.getCursor().x, controller.getCursor().y);
+        g.draw(path);
     }
 
     private void drawFinal(Graphics2D g, Shape shape) {
-        Color stroke = new Color(0,0,0,0);
+        Color stroke = TRANSPARENT;
         if (shape.isSelected()) {
             stroke = Color.GREEN;
         }
@@ -139,101 +231,221 @@ final class GUIPainter implements Painter<Graphics2D> {
         if (shape.isSelected()) {
             stroke = Color.GREEN;
         }
-        Color fill = new Color(0,0,0,0);
+        Color fill = TRANSPARENT;
         drawShapeColor(g, shape, stroke, fill);
     }
 
     private void drawShapeColor(Graphics2D g, Shape shape, Color stroke, Color fill) {
-        Coordinates coordinates = GUIUtils.getCoordinates(shape.getPoints(), controller.getOffset(), controller.getScale());
-        java.awt.Polygon polygon = new java.awt.Polygon(coordinates.xCoords, coordinates.yCoords, coordinates.points.size());
-        g.setStroke(new BasicStroke(1));
-        g.setColor(stroke);
-        g.draw(polygon);
-        g.setColor(fill);
-        g.fill(polygon);
+        outline.reset();
+        for (Point p : shape.getPoints()) {
+            if (outline.getCurrentPoint() == null) {
+                outline.moveTo(p.x, p.y);
+            } else {
+                outline.lineTo(p.x, p.y);
+            }
+        }
+        outline.closePath();
+        g.setStroke(THIN);
+        if (stroke.getAlpha() != 0) {
+            g.setColor(stroke);
+            g.draw(outline);
+        }
+        if (fill.getAlpha() != 0) {
+            g.setColor(fill);
+            g.fill(outline);
+        }
     }
 
-    private void numberSeats(Graphics2D g, SeatedSection section) {
-        if (section.getSeats().length==0){return;}
+    /**
+     * Labels are placed in room coordinates from the seat corners and drawn in pixels.
+     */
+    private void numberSeats(Graphics2D g, SeatedSection section, BitSet shown) {
+        SeatTable table = section.getSeatTable();
+        if (table.size()==0){return;}
+        AffineTransform transform = g.getTransform();
+        g.setTransform(base);
         g.setRenderingHint(
                 RenderingHints.KEY_FRACTIONALMETRICS,
                 RenderingHints.VALUE_FRACTIONALMETRICS_ON
                 );
-        Font font = Font.decode("Arial");
-        double scale = controller.getScale();
+        double scale = scene.scale;
         double maxWidth = scale*Math.min(section.getVitalSpace().getWidth(),section.getVitalSpace().getHeight())/2.0;
-        double x_space = Math.max(section.getSeats()[0][0].getShape().getPoints().elementAt(0).x,
-                section.getSeats()[0][0].getShape().getPoints().elementAt(2).x)-
-                Math.min(section.getSeats()[0][0].getShape().getPoints().elementAt(0).x,
-                        section.getSeats()[0][0].getShape().getPoints().elementAt(2).x);
-        double y_space = Math.max(section.getSeats()[0][0].getShape().getPoints().elementAt(1).y,
-                section.getSeats()[0][0].getShape().getPoints().elementAt(3).y)-
-                Math.min(section.getSeats()[0][0].getShape().getPoints().elementAt(1).y,
-                        section.getSeats()[0][0].getShape().getPoints().elementAt(3).y);
-        int i = 1;
-        int j = 1;
-        for (Seat[] row : section.getSeats()) {
-            double dx = row[0].getShape().getPoints().elementAt(0).x-row[0].getShape().getPoints().elementAt(1).x;
-            double dy = row[0].getShape().getPoints().elementAt(0).y-row[0].getShape().getPoints().elementAt(1).y;
-            double x=Math.min(row[0].getShape().getPoints().elementAt(0).x,row[0].getShape().getPoints().elementAt(2).x)+x_space/3.0+dx;
-            double y=Math.min(row[0].getShape().getPoints().elementAt(1).y,row[0].getShape().getPoints().elementAt(3).y)+2*y_space/3.0+dy;
-            Point p = new Point(x,y);
-            String rowNumber = String.valueOf(j);
-            Rectangle2D bounds = g.getFontMetrics(font).getStringBounds(rowNumber,g);
-            font = font.deriveFont((float)(font.getSize2D()*maxWidth/Math.max(bounds.getWidth(),bounds.getHeight())));
-            drawText(g, p, rowNumber, Color.YELLOW, font);
-            for (Seat seat : row) {
-                x=(int)Math.round(Math.min(seat.getShape().getPoints().elementAt(0).x,seat.getShape().getPoints().elementAt(2).x)+x_space/3.0);
-                y=(int)Math.round(Math.min(seat.getShape().getPoints().elementAt(1).y,seat.getShape().getPoints().elementAt(3).y)+2*y_space/3.0);
-                p = new Point(x,y);
-                String seatNumber = String.valueOf(i);
-                bounds = g.getFontMetrics(font).getStringBounds(seatNumber,g);
-                font = font.deriveFont((float)(font.getSize2D()*maxWidth/Math.max(bounds.getWidth(),bounds.getHeight())));
-                drawText(g, p, seatNumber, Color.WHITE, font);
-                i++;
+        double theta = table.getTheta();
+        double wx = table.getWidth()*Math.sin(theta);
+        double wy = -table.getWidth()*Math.cos(theta);
+        double hx = table.getHeight()*Math.cos(theta);
+        double hy = table.getHeight()*Math.sin(theta);
+        double x_space = Math.abs(wx + hx);
+        double y_space = Math.abs(wy - hy);
+        for (int row = 0; row < table.getRows(); row++) {
+            int start = table.index(row, 0);
+            int end = start + table.getColumns(row);
+            if (start == end || shown != null && shown.get(start, end).isEmpty()) {
+                continue;
+            }
+            double x0 = table.getX(start);
+            double y0 = table.getY(start);
+            double x=Math.min(x0, x0+wx+hx)+x_space/3.0-wx;
+            double y=Math.min(y0+wy, y0+hy)+2*y_space/3.0-wy;
+            drawText(g, x, y, String.valueOf(row + 1), Color.YELLOW, maxWidth);
+            for (int i = start; i < end; i++) {
+                if (shown != null && !shown.get(i)) {
+                    continue;
+                }
+                x0 = table.getX(i);
+                y0 = table.getY(i);
+                x=Math.round(Math.min(x0, x0+wx+hx)+x_space/3.0);
+                y=Math.round(Math.min(y0+wy, y0+hy)+2*y_space/3.0);
+                drawText(g, x, y, String.valueOf(i + 1), Color.WHITE, maxWidth);
             }
-            j++;
         }
+        g.setTransform(transform);
     }
 
-    private void drawText(Graphics2D g, Point point, String string, Color color, Font font){
-        g.setFont(font);
-        g.setColor(color);
-        Point tp = GUIUtils.getTransformedPoint(point,controller.getOffset(),controller.getScale());
-        g.drawString(string, (int)tp.x, (int)tp.y);
+    /**
+     * Visible part of the room, null when painting without clip such as for an image export.
+     */
+    private Bounds visibleBounds(Graphics2D g) {
+        java.awt.Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            return null;
+        }
+        double scale = scene.scale;
+        Point offset = scene.offset;
+        return new Bounds(
+                (clip.x - offset.x) / scale,
+                (clip.y - offset.y) / scale,
+                (clip.x + clip.width - offset.x) / scale,
+                (clip.y + clip.height - offset.y) / scale
+        ).grow(CLIP_MARGIN / scale);
+    }
+
+    private java.awt.Rectangle screenArea(Bounds bounds) {
+        double scale = scene.scale;
+        Point offset = scene.offset;
+        int x = (int) Math.floor(bounds.minX * scale + offset.x) - CLIP_MARGIN;
+        int y = (int) Math.floor(bounds.minY * scale + offset.y) - CLIP_MARGIN;
+        int maxX = (int) Math.ceil(bounds.maxX * scale + offset.x) + CLIP_MARGIN;
+        int maxY = (int) Math.ceil(bounds.maxY * scale + offset.y) + CLIP_MARGIN;
+        return new java.awt.Rectangle(x, y, maxX - x, maxY - y);
     }
 
+    /**
+     * Whole section, a layer is reused whatever part of it is visible afterwards.
+     */
+    private void drawLayer(Graphics2D g, Section section) {
+        Bounds clipped = visible;
+        AffineTransform outer = base;
+        visible = null;
+        base = g.getTransform();
+        g.transform(view);
+        section.accept(g, this);
+        visible = clipped;
+        base = outer;
+    }
+
+    private boolean isVisible(Bounds bounds) {
+        return visible == null || visible.intersects(bounds);
+    }
+
+    /**
+     * Row numbers are drawn one seat outside of the section.
+     */
+    private double labelMargin(Section section) {
+        double[] margin = new double[]{0};
+        section.accept(new SelectionAdapter() {
+            @Override
+            public void visit(SeatedSection section) {
+                margin[0] = Math.max(section.getVitalSpace().getWidth(), section.getVitalSpace().getHeight());
+            }
+        });
+        return margin[0];
+    }
+
+    /**
+     * Centered on the section, shortened to the number alone or left out if it does not fit in.
+     */
+    private void drawSeatCount(Graphics2D g, Shape shape, int count) {
+        Bounds bounds = shape.getBounds();
+        String text = count + " seats";
+        FontMetrics metrics = g.getFontMetrics();
+        double scale = scene.scale;
+        if (metrics.stringWidth(text) > bounds.getWidth() * scale) {
+            text = Integer.toString(count);
+        }
+        if (metrics.stringWidth(text) > bounds.getWidth() * scale || metrics.getHeight() > bounds.getHeight() * scale) {
+            return;
+        }
+        double x = scale * (bounds.minX + bounds.maxX) / 2 + scene.offset.x;
+        double y = scale * (bounds.minY + bounds.maxY) / 2 + scene.offset.y;
+        AffineTransform transform = g.getTransform();
+        g.setTransform(base);
+        g.setColor(Color.WHITE);
+        g.drawString(text, (int) (x - metrics.stringWidth(text) / 2.0), (int) (y + metrics.getAscent() / 2.0));
+        g.setTransform(transform);
+    }
+
+    /**
+     * Expects the pixel transform, the point being in room coordinates.
+     */
+    private void drawText(Graphics2D g, double x, double y, String string, Color color, double size){
+        double scale = scene.scale;
+        labels.draw(g, string, size, (int)(scale*x + scene.offset.x), (int)(scale*y + scene.offset.y), color);
+    }
+
+    /**
+     * Filled with a cached tile of grid cells, the tile being drawn again only when the cell size changes.
+     */
     private void drawGrid(Graphics2D g){
-        g.setStroke(new BasicStroke(1));
-        g.setColor(Color.DARK_GRAY);
-
-        boolean isGridOn = controller.isGridOn();
-        double delta = controller.getDelta()*controller.getScale();
-        Coordinates perimeterCoords = GUIUtils.getCoordinates(controller.getRoom().getShape().getPoints(),controller.getOffset(),controller.getScale());
-        double width = Math.abs(perimeterCoords.xCoords[1]-perimeterCoords.xCoords[0]);
-        double height = Math.abs(perimeterCoords.yCoords[1]-perimeterCoords.yCoords[2]);
-        if (!isGridOn)return;
-        double i = 0;
-        double j = 0;
-        while (i<= width){
-            Vector<Point> points = new Vector<>();
-            points.add(new Point(i,0));
-            points.add(new Point(i,height));
-            drawLine(g,points);
-            i+= delta;
-        }
-        while (j<=height){
-            Vector<Point> points = new Vector<>();
-            points.add(new Point(0,j));
-            points.add(new Point(width,j));
-            drawLine(g,points);
-            j+= delta;
-        }
-    }
-
-    private void drawLine(Graphics2D g, Vector<Point> points){
-        Point offset = GUIUtils.getTransformedPoint(new Point(0,0), controller.getOffset(), controller.getScale());
-        g.drawLine((int)(points.elementAt(0).x+offset.x), (int)(points.elementAt(0).y+offset.y)
-                ,(int)(points.elementAt(1).x+offset.x),(int)(points.elementAt(1).y+offset.y));
+        if (!scene.gridOn) {
+            return;
+        }
+        double scale = scene.scale;
+        double cell = scene.delta * scale;
+        if (gridTile == null || gridCell != cell) {
+            gridTile = gridTile(cell);
+            gridCell = cell;
+        }
+        double period = gridTile.getWidth() == 1 ? cell : cell * Math.round(gridTile.getWidth() / cell);
+        Bounds room = scene.room.getShape().getBounds();
+        double x = scale * room.minX + scene.offset.x;
+        double y = scale * room.minY + scene.offset.y;
+        Rectangle2D area = new Rectangle2D.Double(x, y, scale * room.getWidth() + 1, scale * room.getHeight() + 1);
+        java.awt.Rectangle clip = g.getClipBounds();
+        if (clip != null) {
+            Rectangle2D.intersect(area, clip, area);
+        }
+        AffineTransform transform = g.getTransform();
+        g.setTransform(base);
+        g.setPaint(new TexturePaint(gridTile, new Rectangle2D.Double(x, y, period, period)));
+        g.fill(area);
+        g.setTransform(transform);
+    }
+
+    /**
+     * Holds as many cells as needed for the tile to be a whole number of pixels wide, so that it is not resampled
+     * and no line is dropped when the cell size is fractional.
+     */
+    private static BufferedImage gridTile(double cell) {
+        if (cell <= 1) {
+            BufferedImage tile = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+            tile.setRGB(0, 0, Color.DARK_GRAY.getRGB());
+            return tile;
+        }
+        int cells = 1;
+        while (Math.abs(cells * cell - Math.rint(cells * cell)) > 1e-6 && (cells + 1) * cell <= MAX_GRID_TILE) {
+            cells++;
+        }
+        int size = (int) Math.rint(cells * cell);
+        BufferedImage tile = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        int color = Color.DARK_GRAY.getRGB();
+        for (int k = 0; k < cells; k++) {
+            int line = (int) Math.floor(k * cell);
+            for (int i = 0; i < size; i++) {
+                tile.setRGB(line, i, color);
+                tile.setRGB(i, line, color);
+            }
+        }
+        return tile;
     }
 }
@@ -85,7 +85,7 @@ final class IrregularSectionEdition  extends JFrame {
             controller.autoSetSeat();
             section.forEachSeats(seat -> {
                 seat.setPrice(Double.parseDouble(price.getText()));
-                seat.getShape().setColor(colorToArray(colorPicker.getColor()));
+                seat.setColor(colorToArray(colorPicker.getColor()));
             });
             controller.saveRoom();
             if (check) {
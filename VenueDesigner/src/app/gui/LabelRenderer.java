@@ -0,0 +1,72 @@
+package app.gui;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Rectangle2D;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Seat and row numbers laid out once per label size, a label being scaled so that its larger side fits the size.
+ * Sizes follow the scale and the vital space, only the last few are kept.
+ */
+final class LabelRenderer {
+    private static final Font BASE = Font.decode("Arial");
+    private static final int MAX_SIZES = 8;
+
+    private final LinkedHashMap<Double, Labels> sizes = new LinkedHashMap<Double, Labels>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Double, Labels> eldest) {
+            return size() > MAX_SIZES;
+        }
+    };
+    private volatile long hits;
+    private volatile long misses;
+
+    void draw(Graphics2D g, String text, double size, int x, int y, Color color) {
+        g.setColor(color);
+        g.drawGlyphVector(glyphs(g.getFontRenderContext(), text, size), x, y);
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    private GlyphVector glyphs(FontRenderContext frc, String text, double size) {
+        Labels labels = sizes.get(size);
+        if (labels == null || !labels.frc.equals(frc)) {
+            labels = new Labels(frc);
+            sizes.put(size, labels);
+        }
+        GlyphVector glyphs = labels.glyphs.get(text);
+        if (glyphs != null) {
+            hits++;
+            return glyphs;
+        }
+        misses++;
+        Rectangle2D bounds = BASE.getStringBounds(text, frc);
+        float fontSize = (float) (BASE.getSize2D() * size / Math.max(bounds.getWidth(), bounds.getHeight()));
+        Font font = labels.fonts.computeIfAbsent(fontSize, BASE::deriveFont);
+        glyphs = font.createGlyphVector(frc, text);
+        labels.glyphs.put(text, glyphs);
+        return glyphs;
+    }
+
+    private static final class Labels {
+        private final FontRenderContext frc;
+        private final HashMap<Float, Font> fonts = new HashMap<>();
+        private final HashMap<String, GlyphVector> glyphs = new HashMap<>();
+
+        private Labels(FontRenderContext frc) {
+            this.frc = frc;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package app.gui;
+
+/**
+ * Detail drawn for a seated section depending on the size of its seats on screen, in pixels.
+ * Defaults can be overridden with the venue.lod.outline and venue.lod.labels system properties, invalid values are
+ * reported and the defaults used instead.
+ */
+final class LevelOfDetail {
+    enum Detail {
+        /**
+         * Section outline and its number of seats.
+         */
+        OUTLINE,
+        /**
+         * Seat fills, without perimeters nor numbers.
+         */
+        FILL,
+        FULL
+    }
+
+    static final LevelOfDetail DEFAULT = fromProperties(4, 12);
+
+    private final double outlineBelow;
+    private final double labelsBelow;
+
+    LevelOfDetail(double outlineBelow, double labelsBelow) {
+        if (!isValid(outlineBelow, labelsBelow)) {
+            throw new RuntimeException("Invalid level of detail thresholds: " + outlineBelow + ", " + labelsBelow);
+        }
+        this.outlineBelow = outlineBelow;
+        this.labelsBelow = labelsBelow;
+    }
+
+    Detail of(double seatPixels) {
+        if (seatPixels < outlineBelow) {
+            return Detail.OUTLINE;
+        }
+        if (seatPixels < labelsBelow) {
+            return Detail.FILL;
+        }
+        return Detail.FULL;
+    }
+
+    private static LevelOfDetail fromProperties(double outlineBelow, double labelsBelow) {
+        String outline = System.getProperty("venue.lod.outline");
+        String labels = System.getProperty("venue.lod.labels");
+        try {
+            double outlineValue = outline == null ? outlineBelow : Double.parseDouble(outline);
+            double labelsValue = labels == null ? labelsBelow : Double.parseDouble(labels);
+            if (isValid(outlineValue, labelsValue)) {
+                return new LevelOfDetail(outlineValue, labelsValue);
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        System.err.println("Invalid level of detail thresholds venue.lod.outline=" + outline
+                + " venue.lod.labels=" + labels + ", using " + outlineBelow + " and " + labelsBelow);
+        return new LevelOfDetail(outlineBelow, labelsBelow);
+    }
+
+    /**
+     * Also rejects NaN.
+     */
+    private static boolean isValid(double outlineBelow, double labelsBelow) {
+        return outlineBelow >= 0 && labelsBelow >= outlineBelow;
+    }
+}
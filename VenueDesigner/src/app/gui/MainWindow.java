@@ -1,13 +1,13 @@
 package app.gui;
 
 import app.domain.*;
+import app.domain.collider.GeometryCollider;
 import app.domain.seat.Seat;
 import app.domain.seat.SeatSection;
 import app.domain.section.StandingSection;
 import app.domain.selection.SelectionAdapter;
 import app.domain.section.SeatedSection;
 import app.domain.selection.SelectionVisitor;
-import app.domain.shape.Point;
 import app.domain.shape.PointSelection;
 
 import javax.swing.*;
@@ -26,6 +26,11 @@ public final class MainWindow extends Frame implements Observer {
     private JPanel buttonTopPanel;
     private JScrollPane mainScrollPane;
     private DrawingPanel drawingPanel;
+    private RepaintScheduler repaintScheduler;
+    /**
+     * Painter drawing the room, the render thread one when the room is drawn in the background.
+     */
+    private GUIPainter roomPainter;
     private JPanel buttonBottomPanel;
     private JPanel leftPanel;
     private JPanel RightPanel;
@@ -54,6 +59,11 @@ public final class MainWindow extends Frame implements Observer {
     private JMenuItem room;
     private JMenuItem offers;
     private JMenuItem prices;
+    private JMenu profiler;
+    private JCheckBoxMenuItem showProfiler;
+    private JMenuItem exportProfile;
+    private ProfilerOverlay profilerOverlay;
+    private Timer profilerRefresh;
     private SeatInfo seatInfo;
 
     private MainWindow(JFrame frame) {
@@ -294,14 +304,18 @@ public final class MainWindow extends Frame implements Observer {
     }
 
     private void createUIComponents() {
-        controller = new Controller(new GUICollider());
+        controller = new Controller(new GeometryCollider());
         controller.setObserver(this);
-        GUIPainter painter = new GUIPainter(controller);
-        drawingPanel = new DrawingPanel(painter);
-        Point limits = GUIUtils.getTransformedPoint(controller.getRoom().getShape().getPoints().elementAt(2)
-                ,controller.getOffset(),controller.getScale());
-        drawingPanel.setPreferredSize((int)Math.round(limits.x+controller.getOffset().x), (int)Math.round(limits.y+controller.getOffset().y));
-        controller.setDrawingPanel(drawingPanel);
+        controller.setDispatcher(SwingUtilities::invokeLater);
+        roomPainter = new GUIPainter(controller);
+        drawingPanel = new DrawingPanel(roomPainter);
+        if (Boolean.getBoolean("venue.render.background")) {
+            BackgroundRenderer renderer = new BackgroundRenderer(drawingPanel, controller);
+            drawingPanel.setRenderer(renderer);
+            roomPainter = renderer.getPainter();
+        }
+        repaintScheduler = new RepaintScheduler(drawingPanel, controller);
+        controller.setDrawingPanel(repaintScheduler);
         seatInfo = new SeatInfo();
         sliderZoom = new JSlider(33,400,100);
         sliderGrid = new JSlider(50,200,100);
@@ -354,8 +368,38 @@ public final class MainWindow extends Frame implements Observer {
             else {JOptionPane.showMessageDialog(null, "A stage is needed to use this feature.", "Error", JOptionPane.ERROR_MESSAGE);}
         });
 
+        profiler = new JMenu("Profiler");
+        showProfiler = new JCheckBoxMenuItem("Show overlay");
+        exportProfile = new JMenuItem("Export as CSV");
+        profiler.add(showProfiler);
+        profiler.add(exportProfile);
+
+        profilerOverlay = new ProfilerOverlay(controller.getProfiler());
+        profilerOverlay.addCounter("repaint reqs", repaintScheduler::getRequestedCount);
+        profilerOverlay.addCounter("repaints", repaintScheduler::getPerformedCount);
+        profilerOverlay.addCounter("layouts", drawingPanel::getLayoutCount);
+        profilerOverlay.addCounter("hovers", controller.getHoverScheduler()::getScheduledCount);
+        profilerOverlay.addCounter("seat hits", controller.getSeatLayoutCache()::getHits);
+        profilerOverlay.addCounter("seat misses", controller.getSeatLayoutCache()::getMisses);
+        profilerOverlay.addCounter("layer hits", roomPainter.getLayers()::getHits);
+        profilerOverlay.addCounter("layer misses", roomPainter.getLayers()::getMisses);
+        profilerOverlay.addCounter("label hits", roomPainter.getLabels()::getHits);
+        profilerOverlay.addCounter("label misses", roomPainter.getLabels()::getMisses);
+        profilerRefresh = new Timer(1000, e -> drawingPanel.repaint(profilerOverlay.getBounds()));
+        showProfiler.addActionListener(e -> {
+            if (showProfiler.isSelected()) {
+                drawingPanel.setOverlay(profilerOverlay);
+                profilerRefresh.start();
+            } else {
+                profilerRefresh.stop();
+                drawingPanel.setOverlay(null);
+            }
+        });
+        exportProfile.addActionListener(e -> saveProfile());
+
         menuBar.add(file);
         menuBar.add(edition);
+        menuBar.add(profiler);
         frame.setJMenuBar(menuBar);
     }
 
@@ -398,6 +442,21 @@ public final class MainWindow extends Frame implements Observer {
         }
     }
 
+    private void saveProfile() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new File("profile.csv"));
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        int result = fileChooser.showSaveDialog(this);
+
+        if (result == JFileChooser.APPROVE_OPTION) {
+            String filename = fileChooser.getSelectedFile().toString();
+            if (!filename.endsWith(".csv")) {
+                filename += ".csv";
+            }
+            controller.getProfiler().writeCsv(filename);
+        }
+    }
+
     private void saveImage() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setSelectedFile(new File("room"));
@@ -419,7 +478,7 @@ public final class MainWindow extends Frame implements Observer {
             double tempScale = controller.prepareSave(drawingPanel.getWidth(), drawingPanel.getHeight());
             BufferedImage image = new BufferedImage((int)(controller.getRoom().getWidth() * tempScale), (int)(controller.getRoom().getHeight() * tempScale), BufferedImage.TYPE_INT_RGB);
             Graphics2D g = image.createGraphics();
-            drawingPanel.paint(g);
+            drawingPanel.paintNow(g);
             g.dispose();
             if (isGridOn) controller.toggleGrid();
             controller.offsetScale(controllerOffset, controllerScale);
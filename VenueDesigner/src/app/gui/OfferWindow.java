@@ -4,11 +4,14 @@ import app.domain.Controller;
 import app.domain.Offer;
 import app.domain.Room;
 import app.domain.UIPanel;
-import app.domain.seat.Seat;
+import app.domain.seat.SeatTable;
+import app.domain.section.SeatedSection;
 import app.domain.section.Section;
+import app.domain.selection.SelectionAdapter;
 
 import javax.swing.*;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 
@@ -205,17 +208,18 @@ final class OfferWindow extends JFrame{
     private void showSeats(Room room){
         Offer offer =listOffers.getSelectedValue();
         if (offer == null) { return; }
-        int i=0;
+        int[] i = {0};
         for (Section section: room.getSections()){
-            for (Seat[] row : section.getSeats()){
-                for (Seat seat: row){
-                    seat.setSelected(false);
-                    for (Offer o: seat.getOffers()){
-                        if (o == offer){seat.setSelected(true);i++;}
-                    }
+            section.accept(new SelectionAdapter() {
+                @Override
+                public void visit(SeatedSection section) {
+                    SeatTable table = section.getSeatTable();
+                    BitSet members = table.getOfferMembership().members(offer);
+                    table.setSelected(members);
+                    i[0] += members.cardinality();
                 }
-            }
+            });
         }
-        numberOfSeats.setText(Integer.toString(i));
+        numberOfSeats.setText(Integer.toString(i[0]));
     }
 }
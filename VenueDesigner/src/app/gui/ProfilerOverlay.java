@@ -0,0 +1,71 @@
+package app.gui;
+
+import app.domain.Profiler;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Timer percentiles and counters drawn over the top left corner of the visible area.
+ */
+final class ProfilerOverlay {
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 190);
+    private static final int PADDING = 6;
+
+    private final Profiler profiler;
+    private final LinkedHashMap<String, LongSupplier> counters = new LinkedHashMap<>();
+    private final Rectangle bounds = new Rectangle();
+
+    ProfilerOverlay(Profiler profiler) {
+        this.profiler = Objects.requireNonNull(profiler);
+    }
+
+    void addCounter(String name, LongSupplier counter) {
+        counters.put(Objects.requireNonNull(name), Objects.requireNonNull(counter));
+    }
+
+    void paint(Graphics2D g, Rectangle area) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%-13s %7s %8s %8s %8s %8s", "ms", "count", "p50", "p95", "p99", "max"));
+        for (Profiler.Stats stats : profiler.getStats()) {
+            lines.add(String.format(Locale.ROOT, "%-13s %7d %8.2f %8.2f %8.2f %8.2f", stats.getName(), stats.getCount(),
+                    stats.getP50(), stats.getP95(), stats.getP99(), stats.getMax()));
+        }
+        counters.forEach((name, counter) -> lines.add(String.format(Locale.ROOT, "%-13s %7d", name, counter.getAsLong())));
+
+        g.setFont(FONT);
+        FontMetrics metrics = g.getFontMetrics();
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, metrics.stringWidth(line));
+        }
+        bounds.setBounds(area.x, area.y, width + 2 * PADDING, lines.size() * metrics.getHeight() + 2 * PADDING);
+        g.setColor(BACKGROUND);
+        g.fill(bounds);
+        g.setColor(Color.WHITE);
+        int y = bounds.y + PADDING + metrics.getAscent();
+        for (String line : lines) {
+            g.drawString(line, bounds.x + PADDING, y);
+            y += metrics.getHeight();
+        }
+    }
+
+    /**
+     * Area covered by the last paint, with room for one more line.
+     */
+    Rectangle getBounds() {
+        Rectangle area = new Rectangle(bounds);
+        area.height += FONT.getSize() * 2;
+        return area;
+    }
+}
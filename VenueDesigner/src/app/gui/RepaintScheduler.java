@@ -0,0 +1,88 @@
+package app.gui;
+
+import app.domain.Controller;
+import app.domain.UIPanel;
+import app.domain.shape.Bounds;
+
+import javax.swing.Timer;
+import java.util.Objects;
+
+/**
+ * Coalesces the repaints asked by the controller into at most one paint per frame.
+ * Bounded requests are merged into one dirty region, any unbounded request repaints the whole panel.
+ * A view change also updates the panel size once, before the paint.
+ */
+final class RepaintScheduler implements UIPanel {
+    private static final int FRAME_MILLIS = 16;
+    private static final int MARGIN = 4;
+
+    private final DrawingPanel component;
+    private final Controller controller;
+    private final Timer timer;
+    private Bounds dirty;
+    private boolean full;
+    private boolean resized;
+    private long requested;
+    private long performed;
+
+    RepaintScheduler(DrawingPanel component, Controller controller) {
+        this.component = Objects.requireNonNull(component);
+        this.controller = Objects.requireNonNull(controller);
+        this.timer = new Timer(FRAME_MILLIS, e -> flush());
+        this.timer.setRepeats(false);
+    }
+
+    @Override
+    public void repaint() {
+        requested++;
+        full = true;
+        start();
+    }
+
+    @Override
+    public void repaint(Bounds bounds) {
+        requested++;
+        dirty = dirty == null ? bounds : dirty.union(bounds);
+        start();
+    }
+
+    @Override
+    public void viewChanged() {
+        resized = true;
+        repaint();
+    }
+
+    long getRequestedCount() {
+        return requested;
+    }
+
+    long getPerformedCount() {
+        return performed;
+    }
+
+    private void start() {
+        if (!timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    private void flush() {
+        performed++;
+        if (resized) {
+            component.updatePreferredSize();
+        }
+        if (full) {
+            component.repaint();
+        } else if (dirty != null) {
+            double scale = controller.getScale();
+            int x = (int) Math.floor(dirty.minX * scale + controller.getOffset().x) - MARGIN;
+            int y = (int) Math.floor(dirty.minY * scale + controller.getOffset().y) - MARGIN;
+            int width = (int) Math.ceil(dirty.getWidth() * scale) + 2 * MARGIN + 1;
+            int height = (int) Math.ceil(dirty.getHeight() * scale) + 2 * MARGIN + 1;
+            component.repaint(x, y, width, height);
+        }
+        full = false;
+        resized = false;
+        dirty = null;
+    }
+}
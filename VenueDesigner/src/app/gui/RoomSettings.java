@@ -58,7 +58,10 @@ final class RoomSettings extends JFrame {
                     section.accept(new SelectionAdapter() {
                         @Override
                         public void visit(SeatedSection section) {
-                            if (section.isRegular){section.refresh();}
+                            if (section.isRegular){
+                                section.refresh();
+                                room.update(section);
+                            }
                             else if (room.getStage().isPresent()){
                                 section.autoSetSeat=true;
                                 controller.autoSetSeat();
@@ -70,7 +73,7 @@ final class RoomSettings extends JFrame {
             controller.saveRoom();
             setVisible(false);
             dispose();
-            ui.repaint();
+            ui.viewChanged();
         });
 
         cancelButton.addActionListener( e -> {
@@ -0,0 +1,126 @@
+package app.gui;
+
+import app.domain.Room;
+import app.domain.Stage;
+import app.domain.seat.SeatTable;
+import app.domain.section.SeatedSection;
+import app.domain.section.Section;
+import app.domain.selection.Selection;
+import app.domain.selection.SelectionAdapter;
+import app.domain.shape.Shape;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Copies of the room handed to the render thread, which reads them while the room is edited.
+ * A section unchanged since the previous copy keeps its copy, so the layers drawn from it stay valid,
+ * and the previous room copy is given back when nothing changed at all. Offers are not copied.
+ */
+final class RoomSnapshots {
+    private IdentityHashMap<Section, Copy> sections = new IdentityHashMap<>();
+    private Copy stage;
+    private Room room;
+    private Shape shape;
+    private int version;
+    private Room snapshot;
+
+    /**
+     * Must be called from the UI thread.
+     */
+    Room take(Room room) {
+        boolean changed = snapshot == null || this.room != room || shape != room.getShape()
+                || version != room.getShape().getVersion();
+        this.room = room;
+        this.shape = room.getShape();
+        this.version = shape.getVersion();
+
+        Stage stage = room.getStage().orElse(null);
+        if (stage == null) {
+            changed |= this.stage != null;
+            this.stage = null;
+        } else if (this.stage == null || !this.stage.isCurrent(stage)) {
+            this.stage = new Copy(stage, stage.copy());
+            changed = true;
+        }
+
+        List<Section> sections = room.getSections();
+        changed |= snapshot == null || snapshot.getSections().size() != sections.size();
+        IdentityHashMap<Section, Copy> copies = new IdentityHashMap<>();
+        for (int i = 0; i < sections.size(); i++) {
+            Section section = sections.get(i);
+            Copy copy = this.sections.get(section);
+            if (copy == null || !copy.isCurrent(section)) {
+                copy = new Copy(section, section.copy());
+                changed = true;
+            } else if (!changed && snapshot.getSections().get(i) != copy.copy) {
+                changed = true;
+            }
+            copies.put(section, copy);
+        }
+        this.sections = copies;
+
+        if (changed) {
+            snapshot = new Room(room.getWidth(), room.getHeight(), room.getVitalSpace().clone());
+            if (this.stage != null) {
+                snapshot.setStage((Stage) this.stage.copy);
+            }
+            for (Section section : sections) {
+                snapshot.addSection((Section) copies.get(section).copy);
+            }
+        }
+        return snapshot;
+    }
+
+    private static final class Copy {
+        private final Selection copy;
+        private final Shape shape;
+        private final int version;
+        private final int[] color;
+        private final boolean selected;
+        private final SeatTable table;
+        private final int modCount;
+        private final double vitalWidth;
+        private final double vitalHeight;
+
+        private Copy(Selection original, Selection copy) {
+            this.copy = copy;
+            this.shape = original.getShape();
+            this.version = shape.getVersion();
+            this.color = shape.getColor().clone();
+            this.selected = shape.isSelected();
+            SeatedSection section = seatedSection(original);
+            this.table = section == null ? null : section.getSeatTable();
+            this.modCount = table == null ? 0 : table.getModCount();
+            this.vitalWidth = section == null ? 0 : section.getVitalSpace().getWidth();
+            this.vitalHeight = section == null ? 0 : section.getVitalSpace().getHeight();
+        }
+
+        private boolean isCurrent(Selection original) {
+            Shape shape = original.getShape();
+            if (this.shape != shape || version != shape.getVersion()
+                    || !Arrays.equals(color, shape.getColor()) || selected != shape.isSelected()) {
+                return false;
+            }
+            SeatedSection section = seatedSection(original);
+            if (section == null) {
+                return table == null;
+            }
+            return table == section.getSeatTable() && modCount == table.getModCount()
+                    && vitalWidth == section.getVitalSpace().getWidth()
+                    && vitalHeight == section.getVitalSpace().getHeight();
+        }
+
+        private static SeatedSection seatedSection(Selection selection) {
+            SeatedSection[] section = new SeatedSection[1];
+            selection.accept(new SelectionAdapter() {
+                @Override
+                public void visit(SeatedSection seatedSection) {
+                    section[0] = seatedSection;
+                }
+            });
+            return section[0];
+        }
+    }
+}
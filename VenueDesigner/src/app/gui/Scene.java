@@ -0,0 +1,38 @@
+package app.gui;
+
+import app.domain.Controller;
+import app.domain.Room;
+import app.domain.shape.Point;
+
+import java.util.Objects;
+
+/**
+ * A room and the view on it, read once from the controller so a frame can be drawn without it.
+ */
+final class Scene {
+    final Room room;
+    final Point offset;
+    final double scale;
+    final double delta;
+    final boolean gridOn;
+
+    Scene(Room room, Point offset, double scale, double delta, boolean gridOn) {
+        this.room = Objects.requireNonNull(room);
+        this.offset = new Point(offset);
+        this.scale = scale;
+        this.delta = delta;
+        this.gridOn = gridOn;
+    }
+
+    static Scene of(Controller controller, Room room) {
+        return new Scene(room, controller.getOffset(), controller.getScale(), controller.getDelta(), controller.isGridOn());
+    }
+
+    /**
+     * Same room instance seen the same way.
+     */
+    boolean sameAs(Scene scene) {
+        return scene != null && room == scene.room && offset.x == scene.offset.x && offset.y == scene.offset.y
+                && scale == scene.scale && delta == scene.delta && gridOn == scene.gridOn;
+    }
+}
@@ -0,0 +1,77 @@
+package app.gui;
+
+import app.domain.seat.SeatTable;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Stroke;
+import java.awt.geom.Path2D;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+/**
+ * Seats of a section gathered into one path per fill color, filled at once and then outlined at once.
+ * Paths are in room coordinates, kept between paints and only reset.
+ */
+final class SeatBatch {
+    private static final Stroke STROKE = new BasicStroke(0);
+    private static final int SELECTED = Color.GREEN.getRGB();
+
+    private final LinkedHashMap<Integer, Path2D.Double> fills = new LinkedHashMap<>();
+    private final HashMap<Integer, Color> colors = new HashMap<>();
+    private final Path2D.Double perimeters = new Path2D.Double();
+    private final Path2D.Double selected = new Path2D.Double();
+
+    void clear() {
+        fills.values().forEach(Path2D::reset);
+        perimeters.reset();
+        selected.reset();
+    }
+
+    void add(SeatTable table, int index, boolean perimeter) {
+        double theta = table.getTheta();
+        double wx = table.getWidth()*Math.sin(theta);
+        double wy = -table.getWidth()*Math.cos(theta);
+        double hx = table.getHeight()*Math.cos(theta);
+        double hy = table.getHeight()*Math.sin(theta);
+        double x = table.getX(index);
+        double y = table.getY(index);
+        boolean isSelected = table.isSelected(index);
+        int[] color = table.getColor(index);
+        int argb = isSelected ? SELECTED : color[3] << 24 | color[0] << 16 | color[1] << 8 | color[2];
+        Path2D.Double fill = fills.computeIfAbsent(argb, key -> new Path2D.Double());
+        append(fill, x, y, wx, wy, hx, hy);
+        if (isSelected) {
+            append(selected, x, y, wx, wy, hx, hy);
+        } else if (perimeter) {
+            append(perimeters, x, y, wx, wy, hx, hy);
+        }
+    }
+
+    void paint(Graphics2D g) {
+        g.setStroke(STROKE);
+        fills.forEach((argb, path) -> {
+            if (path.getCurrentPoint() != null) {
+                g.setColor(colors.computeIfAbsent(argb, key -> new Color(key, true)));
+                g.fill(path);
+            }
+        });
+        if (perimeters.getCurrentPoint() != null) {
+            g.setColor(Color.lightGray);
+            g.draw(perimeters);
+        }
+        if (selected.getCurrentPoint() != null) {
+            g.setColor(Color.GREEN);
+            g.draw(selected);
+        }
+    }
+
+    private static void append(Path2D.Double path, double x, double y, double wx, double wy, double hx, double hy) {
+        path.moveTo(x, y);
+        path.lineTo(x + wx, y + wy);
+        path.lineTo(x + wx + hx, y + wy + hy);
+        path.lineTo(x + hx, y + hy);
+        path.closePath();
+    }
+}
@@ -51,7 +51,7 @@ final class SeatEdition extends JFrame {
                 return;
             }
             seat.setPrice(Double.parseDouble(price.getText()));
-            seat.getShape().setColor(colorToArray(colorPicker.getColor()));
+            seat.setColor(colorToArray(colorPicker.getColor()));
             controller.saveRoom();
             setVisible(false);
             dispose();
@@ -61,7 +61,7 @@ final class SeatSectionEdition extends JFrame {
             }
             for (Seat seat : seatSection.getSeats()) {
                 seat.setPrice(Double.parseDouble(price.getText()));
-                seat.getShape().setColor(colorToArray(colorPicker.getColor()));
+                seat.setColor(colorToArray(colorPicker.getColor()));
             }
             controller.saveRoom();
             setVisible(false);
@@ -86,9 +86,10 @@ final class SectionEdition extends JFrame {
                 if (spaceWidth != vitalSpace.getWidth() || spaceHeight != vitalSpace.getHeight()) {
                     section.setVitalSpace(new VitalSpace(spaceWidth, spaceHeight));
                 }
+                controller.getRoom().update(section);
                 section.forEachSeats(seat -> {
                     seat.setPrice(Double.parseDouble(price.getText()));
-                    seat.getShape().setColor(colorToArray(colorPicker.getColor()));
+                    seat.setColor(colorToArray(colorPicker.getColor()));
                 });
                 controller.saveRoom();
                 setVisible(false);
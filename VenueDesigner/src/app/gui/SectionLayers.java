@@ -0,0 +1,153 @@
+package app.gui;
+
+import app.domain.seat.SeatTable;
+import app.domain.section.SeatedSection;
+import app.domain.section.Section;
+import app.domain.selection.SelectionAdapter;
+import app.domain.shape.Point;
+import app.domain.shape.Shape;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Sections rendered once into an image and composited on the following paints.
+ * A layer is rendered again when the section shape, color or selection, its seats, the scale or the offset change.
+ * Layers too large for the pixel budget are not kept and the section is painted directly.
+ */
+final class SectionLayers {
+    private static final long MAX_PIXELS = 16L * 1024 * 1024;
+
+    private final IdentityHashMap<Section, Layer> layers = new IdentityHashMap<>();
+    private long pixels;
+    private volatile long hits;
+    private volatile long misses;
+
+    /**
+     * Returns false if the section has to be painted directly.
+     */
+    boolean paint(Graphics2D g, Section section, Rectangle area, double scale, Point offset,
+                  BiConsumer<Graphics2D, Section> renderer) {
+        Layer layer = layers.get(section);
+        SeatTable table = tableOf(section);
+        if (layer != null && layer.isCurrent(section, table, area, scale, offset)) {
+            hits++;
+            g.drawImage(layer.image, area.x, area.y, null);
+            return true;
+        }
+        long size = (long) area.width * area.height;
+        long available = MAX_PIXELS - pixels + (layer == null ? 0 : layer.pixels());
+        if (area.width <= 0 || area.height <= 0 || size > available) {
+            remove(section);
+            return false;
+        }
+        misses++;
+        if (layer == null || layer.image.getWidth() != area.width || layer.image.getHeight() != area.height) {
+            remove(section);
+            layer = new Layer(new BufferedImage(area.width, area.height, BufferedImage.TYPE_INT_ARGB_PRE));
+            layers.put(section, layer);
+            pixels += layer.pixels();
+        }
+        Graphics2D lg = layer.image.createGraphics();
+        lg.setComposite(AlphaComposite.Clear);
+        lg.fillRect(0, 0, area.width, area.height);
+        lg.setComposite(AlphaComposite.SrcOver);
+        lg.translate(-area.x, -area.y);
+        renderer.accept(lg, section);
+        lg.dispose();
+        layer.update(section, table, area, scale, offset);
+        g.drawImage(layer.image, area.x, area.y, null);
+        return true;
+    }
+
+    /**
+     * Drops the layers of the sections no longer in the room.
+     */
+    void retain(Collection<Section> sections) {
+        Set<Section> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        kept.addAll(sections);
+        for (Section section : layers.keySet().toArray(new Section[0])) {
+            if (!kept.contains(section)) {
+                remove(section);
+            }
+        }
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    private void remove(Section section) {
+        Layer layer = layers.remove(section);
+        if (layer != null) {
+            pixels -= layer.pixels();
+        }
+    }
+
+    private static SeatTable tableOf(Section section) {
+        SeatTable[] table = new SeatTable[1];
+        section.accept(new SelectionAdapter() {
+            @Override
+            public void visit(SeatedSection section) {
+                table[0] = section.getSeatTable();
+            }
+        });
+        return table[0];
+    }
+
+    private static final class Layer {
+        private final BufferedImage image;
+        private Shape shape;
+        private int version;
+        private int[] color;
+        private boolean selected;
+        private SeatTable table;
+        private int modCount;
+        private Rectangle area;
+        private double scale;
+        private double offsetX;
+        private double offsetY;
+
+        private Layer(BufferedImage image) {
+            this.image = image;
+        }
+
+        private long pixels() {
+            return (long) image.getWidth() * image.getHeight();
+        }
+
+        private void update(Section section, SeatTable table, Rectangle area, double scale, Point offset) {
+            this.shape = section.getShape();
+            this.version = shape.getVersion();
+            this.color = shape.getColor().clone();
+            this.selected = shape.isSelected();
+            this.table = table;
+            this.modCount = table == null ? 0 : table.getModCount();
+            this.area = new Rectangle(area);
+            this.scale = scale;
+            this.offsetX = offset.x;
+            this.offsetY = offset.y;
+        }
+
+        private boolean isCurrent(Section section, SeatTable table, Rectangle area, double scale, Point offset) {
+            Shape shape = section.getShape();
+            return this.shape == shape && version == shape.getVersion()
+                    && Arrays.equals(color, shape.getColor()) && selected == shape.isSelected()
+                    && this.table == table && (table == null || modCount == table.getModCount())
+                    && this.area.equals(area) && this.scale == scale
+                    && offsetX == offset.x && offsetY == offset.y;
+        }
+    }
+}
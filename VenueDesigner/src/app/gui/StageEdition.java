@@ -40,6 +40,7 @@ final class StageEdition extends JFrame {
             if (controller.validateStageDimensions(stage, stageWidth, stageHeight)) {
                 stage.setWidth(stageWidth);
                 stage.setHeight(stageHeight);
+                controller.getRoom().update(stage);
                 stage.setElevation(Double.parseDouble(elevation.getText()));
                 setVisible(false);
                 dispose();